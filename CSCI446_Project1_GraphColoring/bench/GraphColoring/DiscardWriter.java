@@ -0,0 +1,31 @@
+package GraphColoring;
+
+import java.io.Writer;
+
+/**
+ * Writer that throws away everything written to it. The benchmarks hand it
+ * to the generator and solvers because their text output is not part of
+ * what is measured
+ *
+ * @version 10/18/26
+ */
+class DiscardWriter extends Writer
+{
+    @Override
+    public void write(char[] buffer, int offset, int length)
+    {
+
+    }
+
+    @Override
+    public void flush()
+    {
+
+    }
+
+    @Override
+    public void close()
+    {
+
+    }
+}
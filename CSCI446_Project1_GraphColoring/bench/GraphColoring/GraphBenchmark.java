@@ -0,0 +1,99 @@
+package GraphColoring;
+
+import java.io.PrintWriter;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Times graph generation and the per vertex conflict count the map based
+ * solvers rely on, over the same fixed seed graphs as SolverBenchmark. The
+ * generation benchmarks only depend on the graph size and seed, the number
+ * of colors is a parameter of the ColoredGraph state alone so they are not
+ * run once per color count
+ *
+ * @version 10/18/26
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GraphBenchmark
+{
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int numVertices;
+
+    @Param({"446"})
+    public long seed;
+
+    private final PrintWriter discard = new PrintWriter(new DiscardWriter());
+
+    /**
+     * A generated graph with a fixed random coloring, so the conflict counts
+     * have conflicts to find
+     */
+    @State(Scope.Benchmark)
+    public static class ColoredGraph
+    {
+        @Param({"3", "4"})
+        public int maxColors;
+
+        private Vertex[] vertices;
+
+        /**
+         * Build the graph once for the trial
+         * @param sizes : the benchmark holding the graph size and seed
+         */
+        @Setup(Level.Trial)
+        public void generateColoredGraph(GraphBenchmark sizes)
+        {
+            Graph graph = new Graph_Generator(sizes.numVertices, sizes.discard, sizes.seed).generateGraph();
+            vertices = graph.theGraph.values().toArray(new Vertex[0]);
+            Random rand = new Random(sizes.seed);
+            for (Vertex vertex : vertices)
+            {
+                vertex.color = rand.nextInt(maxColors);
+            }
+        }
+    }
+
+    @Benchmark
+    public Graph generateGraph()
+    {
+        return new Graph_Generator(numVertices, discard, seed).generateGraph();
+    }
+
+    @Benchmark
+    public CompactGraph generateCompactGraph()
+    {
+        return new Graph_Generator(numVertices, discard, seed).generateCompactGraph();
+    }
+
+    /**
+     * @param graph : the colored graph to count conflicts in
+     * @return the conflicts summed over every vertex
+     */
+    @Benchmark
+    public int calculateConflicts(ColoredGraph graph)
+    {
+        int conflicts = 0;
+        for (Vertex vertex : graph.vertices)
+        {
+            conflicts += vertex.calculateConflicts();
+        }
+        return conflicts;
+    }
+}
@@ -0,0 +1,87 @@
+package GraphColoring;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Times one solve() of each ConstraintSolver on the same fixed seed graphs,
+ * so a new solver can be compared with the existing ones on equal terms.
+ * Every run gets the same deadline and decision budget, which keeps the
+ * slow solvers on the big graphs from stalling the whole suite.
+ *
+ * @version 10/18/26
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SolverBenchmark
+{
+    @Param({"SimpleBacktrackingSolver", "BacktrackingForwardCheckingSolver", "BacktrackingPropagationSolver",
+        "MinConflictsSolver", "GeneticAlgorithmSolver", "DSaturSolver", "ConflictDirectedBackjumpingSolver",
+        "DecomposingSolver", "PlanarColoringSolver", "ParallelBacktrackingSolver",
+        "TabucolSolver", "MemeticSolver"})
+    public String solverName;
+
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int numVertices;
+
+    @Param({"3", "4"})
+    public int maxColors;
+
+    @Param({"446"})
+    public long seed;
+
+    // limits for each solve() call
+    @Param({"1000"})
+    public long timeLimitMillis;
+
+    @Param({"1000000"})
+    public long decisionBudget;
+
+    // a DIMACS .col file to run on in place of the generated graphs, numVertices
+    // and seed are ignored when set
+    @Param({""})
+    public String dimacsFile;
+
+    private Class<?> solverClass;
+    private Graph graph;
+    private PrintWriter discard;
+
+    @Setup(Level.Trial)
+    public void generateGraph() throws ClassNotFoundException, IOException
+    {
+        solverClass = Class.forName("GraphColoring." + solverName);
+        discard = new PrintWriter(new DiscardWriter());
+        graph = dimacsFile.isEmpty()
+                ? new Graph_Generator(numVertices, discard, seed).generateGraph()
+                : DimacsFormat.read(new File(dimacsFile), discard);
+    }
+
+    @Benchmark
+    public SolveResult solve() throws ReflectiveOperationException
+    {
+        // solvers keep state from their last run, so every call gets a new one
+        ConstraintSolver solver = (ConstraintSolver) solverClass.getDeclaredConstructor().newInstance();
+        solver.updateGraph(graph);
+        solver.setMaxColors(maxColors);
+        solver.assignPrintWriter(discard);
+        return solver.solve(timeLimitMillis, decisionBudget);
+    }
+}
@@ -1,14 +1,15 @@
 package GraphColoring;
 
-import java.util.Map;
-
 /**
- * Graph coloring constraint solver using backtracking with forward checking
- * @version 09/08/16
+ * Graph coloring constraint solver using backtracking with forward checking.
+ * Assigning a color removes it from the domains of the uncolored neighbors
+ * and the search backs up as soon as a domain is empty.
+ * @version 10/18/26
  */
 public class BacktrackingForwardCheckingSolver extends ConstraintSolver
 {
-    private int numPoints;
+    // stop searching after this many decisions so impossible instances end
+    private final int maxDecisions = 5000000;
 
     public BacktrackingForwardCheckingSolver()
     {
@@ -16,117 +17,37 @@ public class BacktrackingForwardCheckingSolver extends ConstraintSolver
     }
 
     /**
-     * 
+     * Run the propagation engine in forward checking mode and copy its
+     * coloring back into the graph
      */
     @Override
     public void runSolver()
     {
+        PropagationEngine engine = new PropagationEngine(compactGraph, maxColors, PropagationEngine.Mode.FORWARD_CHECKING);
         boolean validColoring = false;
-        
-        numPoints = graph.getGraphSize();
-        int verticesVisited = 0; 
-        decisionsMade = 0;
-        int validColorings = 0;
-        
-        if(backtrack(0))
+        if (!refutedByClique())
         {
-            validColorings++; 
-            validColoring = true;
+            SolveStatus status = engine.backtrack(this, maxDecisions);
+            validColoring = status == SolveStatus.SOLVED;
+            provenUnsatisfiable = status == SolveStatus.PROVEN_UNSAT;
         }
-        
+        decisionsMade = engine.getDecisions();
+        compactGraph.writeColorsTo(graph);
+
         runs.println();
         
-        graph.printGraph();
+        if (TraceLog.isEnabled(TraceLog.Level.DEBUG))
+        {
+            graph.printGraph();
+        }
         /**
          * Output program values
          */
         runs.println();
         runs.println("=== Program Output Values ===");
-        runs.println("Valid Coloring: " + validColoring + ", with " + graph.calculateFitness() + " of 10 nodes correctly colored.");
+        runs.println("Valid Coloring: " + validColoring + ", with " + compactGraph.calculateFitness() 
+                + " of " + compactGraph.getNumVertices() + " nodes correctly colored.");
         runs.println("Decisions Made: " + decisionsMade);
         runs.println();
     }
-
-    /**
-     * Recursive backtracking algorithm to traverse graph 
-     * @param point
-     * @return true if path found, false if not
-     */
-    private boolean backtrack(int point)
-    {
-        //for each color, set node to color and move to first non colored edge
-        for (int color = 0; color < maxColors; color++)
-        {
-            theGraph.get(point).color = color;
-            if (pointSatisfiesConstraint(point))
-            {
-                runs.format("node %d given color %d%n", point, color);
-                decisionsMade++; 
-                if (allAdjacentColored(point))
-                {
-                    runs.println("All surrounding nodes colored");
-                    return true;
-                } else
-                {
-                    //move through each edge
-                    for (int i = 0; i < numPoints; i++)
-                    {
-                        decisionsMade++; 
-                        if (theGraph.get(point).edges.containsKey(i) && theGraph.get(i).color == -1)
-                        {
-                            //point reached with all edge nodes colored and all graph nodes colored. 
-                            if (backtrack(i) && allNodesColored())
-                            {
-                                runs.println("Solution found");
-                                return true;
-                            }
-                            //exit edge loop if unsuccessful coloring found 
-                            else 
-                            {
-                                break;
-                            }
-                        }
-                    }
-                }
-                runs.println("Backtracking");
-            }
-        }        
-        theGraph.get(point).color = -1;
-        return false;
-    }
-
-    /**
-     * Check that all adjacent points are colored 
-     * @param point
-     * @return 
-     */
-    private boolean allAdjacentColored(int point)
-    {
-        for (int i = 0; i < numPoints; i++)
-        {
-            decisionsMade++; 
-            if (theGraph.get(point).edges.containsKey(i) && theGraph.get(i).color == -1)
-            {
-                return false;
-            }
-        }
-        return true;
-    }
-
-    /**
-     * Check that all nodes have been colored 
-     * @return 
-     */
-    private boolean allNodesColored()
-    {
-        for (Map.Entry<Integer, Vertex> entry : theGraph.entrySet())
-        {
-            decisionsMade++; 
-            if (entry.getValue().color == -1)
-            {
-                return false;
-            }
-        }
-        return true; 
-    }
 }
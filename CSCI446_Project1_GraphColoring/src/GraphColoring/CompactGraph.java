@@ -0,0 +1,353 @@
+package GraphColoring;
+
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compressed sparse row (CSR) representation of a graph.
+ * The neighbors of vertex v are stored in neighbors[offsets[v]] up to (but
+ * not including) neighbors[offsets[v + 1]]. Every undirected edge is stored
+ * once in each direction. Colors are kept in a flat int array where -1 means
+ * "not assigned", the same convention Vertex uses.
+ *
+ * The map based Graph / Vertex structure can be converted to and from this
+ * representation so solvers can work on primitive arrays and write their
+ * final coloring back for the ResultCalculator.
+ *
+ * @version 10/18/26
+ */
+public class CompactGraph
+{
+    // number of vertices in the graph
+    private final int numVertices;
+    // offsets[v] is the index in neighbors where v's adjacency list starts
+    public final int[] offsets;
+    // all adjacency lists laid out back to back
+    public final int[] neighbors;
+    // color of each vertex. -1 is "not assigned"
+    public final int[] colors;
+    // the vertex locations on the unit square
+    public final double[] xValues;
+    public final double[] yValues;
+
+    /**
+     * Instantiate a graph from already built CSR arrays. The arrays are
+     * used directly, not copied.
+     * @param offsets : adjacency start index per vertex, length n + 1
+     * @param neighbors : the adjacency lists laid out back to back
+     * @param xValues : x value of each vertex, length n
+     * @param yValues : y value of each vertex, length n
+     */
+    public CompactGraph(int[] offsets, int[] neighbors, double[] xValues, double[] yValues)
+    {
+        this.numVertices = offsets.length - 1;
+        this.offsets = offsets;
+        this.neighbors = neighbors;
+        this.xValues = xValues;
+        this.yValues = yValues;
+
+        colors = new int[numVertices];
+        Arrays.fill(colors, -1);
+    }
+
+    /**
+     * Build a CSR graph from an undirected edge list. Each edge (a, b) only
+     * needs to be listed once, it is stored in both directions.
+     * @param n : the number of vertices
+     * @param edgeSources : first endpoint of each edge
+     * @param edgeTargets : second endpoint of each edge
+     * @param numEdges : how many entries of the edge arrays are in use
+     * @param xValues : x value of each vertex, length n
+     * @param yValues : y value of each vertex, length n
+     * @return the CSR graph
+     */
+    public static CompactGraph fromEdgeList(int n, int[] edgeSources, int[] edgeTargets,
+            int numEdges, double[] xValues, double[] yValues)
+    {
+        int[] offsets = new int[n + 1];
+
+        // count the degree of each vertex
+        for (int i = 0; i < numEdges; i++)
+        {
+            offsets[edgeSources[i] + 1]++;
+            offsets[edgeTargets[i] + 1]++;
+        }
+        // prefix sum the degrees into start offsets
+        for (int v = 0; v < n; v++)
+        {
+            offsets[v + 1] += offsets[v];
+        }
+
+        // place each edge in both adjacency lists
+        int[] neighbors = new int[offsets[n]];
+        int[] next = Arrays.copyOf(offsets, n);
+        for (int i = 0; i < numEdges; i++)
+        {
+            int a = edgeSources[i];
+            int b = edgeTargets[i];
+            neighbors[next[a]++] = b;
+            neighbors[next[b]++] = a;
+        }
+
+        return new CompactGraph(offsets, neighbors, xValues, yValues);
+    }
+
+    /**
+     * Adapter from the map based graph. Vertex numbers are expected to be the
+     * map keys 0 .. n-1, which is how Graph_Generator numbers them. The
+     * current vertex colors are copied as well.
+     * @param graph : the map based graph to convert
+     * @return the CSR graph
+     */
+    public static CompactGraph fromGraph(Graph graph)
+    {
+        Map<Integer, Vertex> theGraph = graph.theGraph;
+        int n = theGraph.size();
+        int[] offsets = new int[n + 1];
+        double[] xValues = new double[n];
+        double[] yValues = new double[n];
+
+        for (int v = 0; v < n; v++)
+        {
+            Vertex vertex = theGraph.get(v);
+            offsets[v + 1] = offsets[v] + vertex.edges.size();
+            xValues[v] = vertex.getxValue();
+            yValues[v] = vertex.getyValue();
+        }
+
+        int[] neighbors = new int[offsets[n]];
+        for (int v = 0; v < n; v++)
+        {
+            int index = offsets[v];
+            for (Integer key : theGraph.get(v).edges.keySet())
+            {
+                neighbors[index++] = key;
+            }
+        }
+
+        CompactGraph compact = new CompactGraph(offsets, neighbors, xValues, yValues);
+        compact.readColorsFrom(graph);
+        return compact;
+    }
+
+    /**
+     * Adapter to the map based graph. Builds a new Vertex for every entry
+     * and connects the edges in both directions.
+     * @param run : writer used for text file output by the Graph
+     * @return a Graph holding the same vertices, edges and colors
+     */
+    public Graph toGraph(PrintWriter run)
+    {
+        Map<Integer, Vertex> theGraph = new HashMap<>(numVertices * 2);
+        for (int v = 0; v < numVertices; v++)
+        {
+            Vertex vertex = new Vertex(xValues[v], yValues[v]);
+            vertex.setVertexNum(v);
+            vertex.color = colors[v];
+            theGraph.put(v, vertex);
+        }
+        for (int v = 0; v < numVertices; v++)
+        {
+            Vertex vertex = theGraph.get(v);
+            for (int i = offsets[v]; i < offsets[v + 1]; i++)
+            {
+                vertex.setEdge(theGraph.get(neighbors[i]));
+            }
+        }
+
+        return new Graph(theGraph, this, run);
+    }
+
+    /**
+     * Copy the color of every Vertex in the map based graph into colors
+     * @param graph : the graph this CSR graph was built from
+     */
+    public void readColorsFrom(Graph graph)
+    {
+        for (int v = 0; v < numVertices; v++)
+        {
+            colors[v] = graph.theGraph.get(v).color;
+        }
+    }
+
+    /**
+     * Copy colors back into every Vertex of the map based graph so the rest
+     * of the program (printing, ResultCalculator) sees the CSR solver's result
+     * @param graph : the graph this CSR graph was built from
+     */
+    public void writeColorsTo(Graph graph)
+    {
+        for (int v = 0; v < numVertices; v++)
+        {
+            graph.theGraph.get(v).color = colors[v];
+        }
+    }
+
+    /**
+     * Set every vertex back to -1 "not assigned"
+     */
+    public void clearColors()
+    {
+        Arrays.fill(colors, -1);
+    }
+
+    /**
+     * calculates how many neighbors share vertex v's color
+     * @param v : the vertex number
+     * @return the number of conflicting edges at v
+     */
+    public int calculateConflicts(int v)
+    {
+        int numConflicts = 0;
+        int color = colors[v];
+        for (int i = offsets[v]; i < offsets[v + 1]; i++)
+        {
+            if (colors[neighbors[i]] == color)
+            {
+                numConflicts++;
+            }
+        }
+        return numConflicts;
+    }
+
+    /**
+     * Same meaning as Graph.calculateFitness()
+     * @return the number of vertices that are not in conflict
+     */
+    public int calculateFitness()
+    {
+        int fitness = 0;
+        for (int v = 0; v < numVertices; v++)
+        {
+            if (calculateConflicts(v) == 0)
+            {
+                fitness++;
+            }
+        }
+        return fitness;
+    }
+
+    /**
+     * @return true if every vertex is colored and no edge joins two vertices
+     * of the same color
+     */
+    public boolean satisfiesConstraint()
+    {
+        for (int v = 0; v < numVertices; v++)
+        {
+            if (colors[v] == -1 || calculateConflicts(v) > 0)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Greedy lower bound on the largest clique. Each vertex seeds a clique
+     * that is grown from its neighbors, highest degree first, adding every
+     * neighbor joined to all members so far. Every vertex of a clique needs
+     * its own color, so a clique bigger than the allowed colors proves the
+     * graph cannot be colored.
+     * @return the vertices of the biggest clique found
+     */
+    public int[] greedyClique()
+    {
+        int[] best = new int[numVertices == 0 ? 0 : 1];
+        int[] clique = new int[0];
+        int[] candidates = new int[0];
+        for (int v = 0; v < numVertices; v++)
+        {
+            int degree = degree(v);
+            // v's clique can not be bigger than v and all its neighbors
+            if (degree + 1 <= best.length)
+            {
+                continue;
+            }
+            if (candidates.length < degree)
+            {
+                candidates = new int[degree];
+                clique = new int[degree + 1];
+            }
+            // insertion sort the neighbors by degree, highest first
+            for (int i = 0; i < degree; i++)
+            {
+                int neighbor = neighbors[offsets[v] + i];
+                int j = i;
+                while (j > 0 && degree(candidates[j - 1]) < degree(neighbor))
+                {
+                    candidates[j] = candidates[j - 1];
+                    j--;
+                }
+                candidates[j] = neighbor;
+            }
+
+            clique[0] = v;
+            int size = 1;
+            for (int i = 0; i < degree; i++)
+            {
+                int candidate = candidates[i];
+                boolean joinsAll = true;
+                for (int j = 1; j < size && joinsAll; j++)
+                {
+                    joinsAll = hasEdge(candidate, clique[j]);
+                }
+                if (joinsAll)
+                {
+                    clique[size++] = candidate;
+                }
+            }
+            if (size > best.length)
+            {
+                best = Arrays.copyOf(clique, size);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @param a : a vertex number
+     * @param b : a vertex number
+     * @return true if an edge joins a and b
+     */
+    public boolean hasEdge(int a, int b)
+    {
+        for (int i = offsets[a]; i < offsets[a + 1]; i++)
+        {
+            if (neighbors[i] == b)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // <editor-fold defaultstate="collapsed" desc="Basic Getters and Setters">
+    /**
+     * @return the number of vertices
+     */
+    public int getNumVertices()
+    {
+        return numVertices;
+    }
+
+    /**
+     * @return the number of undirected edges
+     */
+    public int getNumEdges()
+    {
+        return neighbors.length / 2;
+    }
+
+    /**
+     * @param v : the vertex number
+     * @return how many edges vertex v has
+     */
+    public int degree(int v)
+    {
+        return offsets[v + 1] - offsets[v];
+    }
+    // </editor-fold>
+}
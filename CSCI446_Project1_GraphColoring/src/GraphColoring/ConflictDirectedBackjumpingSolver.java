@@ -0,0 +1,400 @@
+package GraphColoring;
+
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Graph coloring constraint solver using conflict directed backjumping (CBJ)
+ * with nogood learning.
+ *
+ * Each depth of the search keeps a conflict set, the depths whose colors
+ * ruled out one of its vertex's colors. When a vertex runs out of colors the
+ * search jumps straight back to the deepest depth in its conflict set rather
+ * than to the previous depth, and that depth inherits the rest of the set.
+ *
+ * Every jump also learns a nogood: the colors at the other depths of the
+ * conflict set forbid the culprit's color. Nogoods are kept in a bounded
+ * store keyed by (vertex, color) with least recently used eviction and are
+ * checked before that color is tried again anywhere else in the search.
+ *
+ * @version 10/18/26
+ */
+public class ConflictDirectedBackjumpingSolver extends ConstraintSolver
+{
+    // stop searching after this many decisions so impossible instances end
+    private final int maxDecisions = 5000000;
+    // most (vertex, color) entries kept in the nogood store
+    private final int nogoodCapacity = 10000;
+    // most nogoods kept for one (vertex, color), the oldest is dropped
+    private final int nogoodsPerValue = 4;
+    // longer nogoods rarely match again and are not stored
+    private final int maxNogoodSize = 16;
+
+    private int numPoints;
+    private int[] colors;
+    private int[] offsets;
+    private int[] neighbors;
+
+    // neighborColorCount[v * maxColors + c] is how many neighbors of v have color c
+    private int[] neighborColorCount;
+    // bit c is set if at least one neighbor of v has color c
+    private long[] usedColors;
+    // depth at which each vertex was colored, -1 if uncolored
+    private int[] depthOf;
+
+    // the vertex colored at each depth, the colors it still has to try, the
+    // highest color used at or below that depth and the depths responsible
+    // for the colors it could not take
+    private int[] stackVertex;
+    private long[] stackRemaining;
+    private int[] stackHighestColor;
+    private BitSet[] conflictSet;
+
+    private NogoodStore nogoods;
+    private int backjumps;
+    private int nogoodPrunes;
+
+    public ConflictDirectedBackjumpingSolver()
+    {
+
+    }
+
+    @Override
+    public void runSolver()
+    {
+        initialize();
+        boolean validColoring = !refutedByClique() && search();
+        compactGraph.writeColorsTo(graph);
+
+        runs.println();
+        runs.println("=== Program Output Values ===");
+        runs.format("Valid Coloring: %b, with %d out of %d nodes correctly colored.%n",
+                validColoring, compactGraph.calculateFitness(), compactGraph.getNumVertices());
+        runs.format("Decisions Made: %d%n", decisionsMade);
+        runs.format("Backjumps: %d, nogoods learned: %d, colors pruned by nogoods: %d%n",
+                backjumps, nogoods.getLearned(), nogoodPrunes);
+    }
+
+    /**
+     * Set up the color counts, search stack and an empty nogood store
+     */
+    private void initialize()
+    {
+        if (maxColors > 64)
+        {
+            throw new RuntimeException("ConflictDirectedBackjumpingSolver supports at most 64 colors, " + maxColors + " requested.");
+        }
+        numPoints = compactGraph.getNumVertices();
+        offsets = compactGraph.offsets;
+        neighbors = compactGraph.neighbors;
+        colors = compactGraph.colors;
+        compactGraph.clearColors();
+        decisionsMade = 0;
+        backjumps = 0;
+        nogoodPrunes = 0;
+
+        neighborColorCount = new int[numPoints * maxColors];
+        usedColors = new long[numPoints];
+        depthOf = new int[numPoints];
+        java.util.Arrays.fill(depthOf, -1);
+        stackVertex = new int[numPoints];
+        stackRemaining = new long[numPoints];
+        stackHighestColor = new int[numPoints];
+        conflictSet = new BitSet[numPoints];
+        nogoods = new NogoodStore(nogoodCapacity, nogoodsPerValue);
+    }
+
+    /**
+     * Iterative backtracking that jumps back to the deepest cause of each
+     * failure
+     * @return true if every vertex was given a valid color
+     */
+    private boolean search()
+    {
+        int depth = 0;
+        boolean descending = true;
+
+        while (decisionsMade < maxDecisions && !outOfBudget())
+        {
+            if (descending)
+            {
+                if (depth == numPoints)
+                {
+                    return true;
+                }
+                // colors above highestUsed + 1 are skipped without joining the
+                // conflict set, they fail for the same reasons as highestUsed + 1
+                int vertex = selectUncolored();
+                int highestUsed = depth == 0 ? -1 : stackHighestColor[depth - 1];
+                stackVertex[depth] = vertex;
+                stackRemaining[depth] = symmetryMask(highestUsed, maxColors);
+                if (conflictSet[depth] == null)
+                {
+                    conflictSet[depth] = new BitSet();
+                }
+                conflictSet[depth].clear();
+            }
+
+            int vertex = stackVertex[depth];
+            if (colors[vertex] != -1)
+            {
+                uncolor(vertex);
+            }
+
+            long remaining = stackRemaining[depth];
+            boolean placed = false;
+            while (remaining != 0)
+            {
+                int color = Long.numberOfTrailingZeros(remaining);
+                remaining &= remaining - 1;
+                if (consistent(vertex, color, conflictSet[depth]))
+                {
+                    decisionsMade++;
+                    color(vertex, color, depth);
+                    placed = true;
+                    break;
+                }
+            }
+            stackRemaining[depth] = remaining;
+
+            if (placed)
+            {
+                stackHighestColor[depth] = Math.max(colors[vertex], depth == 0 ? -1 : stackHighestColor[depth - 1]);
+                depth++;
+                descending = true;
+                continue;
+            }
+
+            // every color failed, jump back to the deepest depth responsible
+            BitSet conflicts = conflictSet[depth];
+            int culprit = conflicts.length() - 1;
+            if (culprit < 0)
+            {
+                // no earlier choice caused this, the graph cannot be colored
+                provenUnsatisfiable = true;
+                return false;
+            }
+            learnNogood(conflicts, culprit);
+            conflictSet[culprit].or(conflicts);
+            conflictSet[culprit].clear(culprit);
+            if (culprit < depth - 1)
+            {
+                backjumps++;
+            }
+            for (int d = depth - 1; d > culprit; d--)
+            {
+                uncolor(stackVertex[d]);
+            }
+            depth = culprit;
+            descending = false;
+        }
+        return false;
+    }
+
+    /**
+     * Check whether vertex can take color, adding the depths that rule it out
+     * to the conflict set
+     * @param vertex : an uncolored vertex
+     * @param color : the color to try
+     * @param conflicts : conflict set of the current depth
+     * @return true if no colored neighbor or stored nogood forbids the color
+     */
+    private boolean consistent(int vertex, int color, BitSet conflicts)
+    {
+        if ((usedColors[vertex] & (1L << color)) != 0)
+        {
+            // blame the earliest neighbor with the color so jumps go as far back as possible
+            int earliest = Integer.MAX_VALUE;
+            for (int i = offsets[vertex]; i < offsets[vertex + 1]; i++)
+            {
+                int neighbor = neighbors[i];
+                if (colors[neighbor] == color && depthOf[neighbor] < earliest)
+                {
+                    earliest = depthOf[neighbor];
+                }
+            }
+            conflicts.set(earliest);
+            return false;
+        }
+
+        int[] nogood = nogoods.findMatch(vertex * maxColors + color, colors);
+        if (nogood != null)
+        {
+            for (int i = 0; i < nogood.length; i += 2)
+            {
+                conflicts.set(depthOf[nogood[i]]);
+            }
+            nogoodPrunes++;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Record that the colors at the conflict depths other than the culprit
+     * forbid the culprit vertex's current color
+     * @param conflicts : conflict set of the depth that ran out of colors
+     * @param culprit : deepest depth in the conflict set
+     */
+    private void learnNogood(BitSet conflicts, int culprit)
+    {
+        int size = conflicts.cardinality() - 1;
+        if (size > maxNogoodSize)
+        {
+            return;
+        }
+        int[] nogood = new int[size * 2];
+        int i = 0;
+        for (int d = conflicts.nextSetBit(0); d < culprit; d = conflicts.nextSetBit(d + 1))
+        {
+            int vertex = stackVertex[d];
+            nogood[i++] = vertex;
+            nogood[i++] = colors[vertex];
+        }
+        int vertex = stackVertex[culprit];
+        nogoods.add(vertex * maxColors + colors[vertex], nogood);
+    }
+
+    /**
+     * Most constrained uncolored vertex, the one with the most distinct colors
+     * among its neighbors, ties broken by the higher degree
+     * @return an uncolored vertex
+     */
+    private int selectUncolored()
+    {
+        int best = -1;
+        int bestSaturation = -1;
+        int bestDegree = -1;
+        for (int v = 0; v < numPoints; v++)
+        {
+            if (colors[v] != -1)
+            {
+                continue;
+            }
+            int saturation = Long.bitCount(usedColors[v]);
+            int degree = offsets[v + 1] - offsets[v];
+            if (saturation > bestSaturation || (saturation == bestSaturation && degree > bestDegree))
+            {
+                best = v;
+                bestSaturation = saturation;
+                bestDegree = degree;
+            }
+        }
+        return best;
+    }
+
+    private void color(int vertex, int color, int depth)
+    {
+        colors[vertex] = color;
+        depthOf[vertex] = depth;
+        long bit = 1L << color;
+        for (int i = offsets[vertex]; i < offsets[vertex + 1]; i++)
+        {
+            int neighbor = neighbors[i];
+            if (neighborColorCount[neighbor * maxColors + color]++ == 0)
+            {
+                usedColors[neighbor] |= bit;
+            }
+        }
+    }
+
+    private void uncolor(int vertex)
+    {
+        int color = colors[vertex];
+        colors[vertex] = -1;
+        depthOf[vertex] = -1;
+        long bit = 1L << color;
+        for (int i = offsets[vertex]; i < offsets[vertex + 1]; i++)
+        {
+            int neighbor = neighbors[i];
+            if (--neighborColorCount[neighbor * maxColors + color] == 0)
+            {
+                usedColors[neighbor] &= ~bit;
+            }
+        }
+    }
+
+    /**
+     * Bounded store of learned nogoods. A nogood for key vertex * maxColors +
+     * color is a list of (vertex, color) pairs which, when all colored that
+     * way, forbid vertex from taking color. The least recently used key is
+     * evicted once the store is full.
+     */
+    private static class NogoodStore
+    {
+        private final Map<Integer, int[][]> store;
+        private final int nogoodsPerValue;
+        private int learned = 0;
+
+        NogoodStore(int capacity, int nogoodsPerValue)
+        {
+            this.nogoodsPerValue = nogoodsPerValue;
+            store = new LinkedHashMap<Integer, int[][]>(capacity * 4 / 3 + 1, 0.75f, true)
+            {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, int[][]> eldest)
+                {
+                    return size() > capacity;
+                }
+            };
+        }
+
+        /**
+         * @param key : vertex * maxColors + color
+         * @param nogood : flat (vertex, color) pairs
+         */
+        void add(int key, int[] nogood)
+        {
+            int[][] entry = store.get(key);
+            if (entry == null)
+            {
+                entry = new int[nogoodsPerValue][];
+                store.put(key, entry);
+            }
+            // newest first, the oldest falls off the end
+            System.arraycopy(entry, 0, entry, 1, nogoodsPerValue - 1);
+            entry[0] = nogood;
+            learned++;
+        }
+
+        /**
+         * @param key : vertex * maxColors + color
+         * @param colors : the current coloring
+         * @return a stored nogood for key that holds under colors, or null
+         */
+        int[] findMatch(int key, int[] colors)
+        {
+            int[][] entry = store.get(key);
+            if (entry == null)
+            {
+                return null;
+            }
+            for (int[] nogood : entry)
+            {
+                if (nogood != null && holds(nogood, colors))
+                {
+                    return nogood;
+                }
+            }
+            return null;
+        }
+
+        private boolean holds(int[] nogood, int[] colors)
+        {
+            for (int i = 0; i < nogood.length; i += 2)
+            {
+                if (colors[nogood[i]] != nogood[i + 1])
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        int getLearned()
+        {
+            return learned;
+        }
+    }
+}
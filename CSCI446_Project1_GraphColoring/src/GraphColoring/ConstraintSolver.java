@@ -1,8 +1,16 @@
 package GraphColoring;
 
 import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Abstract class that all constraint solving classes will extent to use the
@@ -13,8 +21,13 @@ import java.util.Map;
 public abstract class ConstraintSolver
 {
     // Metrics for the result calculator 
-    protected int decisionsMade = 0;
+    protected long decisionsMade = 0;
     private boolean satisfiesConstraint;
+    // wall clock time and bytes allocated by the last measured run. Only the
+    // calling thread's allocations are counted, -1 where the JVM can not tell
+    // or the solver does its work on other threads
+    private long elapsedNanos = 0;
+    private long allocatedBytes = 0;
     
     // Set by the driver to decide whether 3 or 4 colors are allowed for the run
     protected int maxColors;
@@ -25,18 +38,279 @@ public abstract class ConstraintSolver
      */
     protected Graph graph;
     protected Map<Integer, Vertex> theGraph;
+    // CSR view of the same graph for solvers that work on primitive arrays.
+    // Those solvers write their final colors back into graph when finished
+    protected CompactGraph compactGraph;
+    
+    // set from another thread to ask a running solver to stop early. Solvers
+    // check it in their main loop and return with whatever coloring they have.
+    // Each run gets its own flag, replaced when the run ends, so a cancel()
+    // made before or while a run starts still stops it and a deadline firing
+    // late can not stop the next run
+    private volatile AtomicBoolean cancelled = new AtomicBoolean();
+    // most decisions solve() allows, checked along with cancelled
+    private long decisionBudget = Long.MAX_VALUE;
+    // a solver working on part of another solver's graph stops when that
+    // solver is cancelled too
+    private ConstraintSolver parent;
+    // decisions this run's child solvers have reported, see setParent()
+    private final AtomicLong childDecisions = new AtomicLong();
+    // this run's decisions already added to the parent's childDecisions
+    private final AtomicLong publishedDecisions = new AtomicLong();
+    // most decisions a child keeps to itself before reporting them
+    private static final int publishInterval = 1024;
+    // a batch is at most what is left of the parent's budget divided by this,
+    // so children on every core together hold back about a sixteenth of it
+    private static final int publishShare = 16 * Runtime.getRuntime().availableProcessors();
+    // set by complete solvers when they show no coloring exists
+    protected boolean provenUnsatisfiable = false;
+    // true while the graph's coloring is known to be valid, which recolor()
+    // needs to only look at the changed vertices
+    private boolean coloringValid = false;
+    
+    // cancels solvers whose solve() deadline has passed, so the deadline costs
+    // the solver loops nothing beyond the cancelled check they already make
+    private static final com.sun.management.ThreadMXBean threadBean = threadBean();
+    private static final ScheduledExecutorService deadlineTimer = Executors.newSingleThreadScheduledExecutor(runnable ->
+    {
+        Thread thread = new Thread(runnable, "solver-deadline");
+        thread.setDaemon(true);
+        return thread;
+    });
     
     /**
      * results and runs PrintWriter
      */
-    protected static PrintWriter results;
-    protected static PrintWriter runs;
+    protected PrintWriter results;
+    protected PrintWriter runs;
     
     /**
      * The logic of the current solver instance
      */
     public abstract void runSolver();
     
+    /**
+     * Run the solver with a wall clock deadline and a decision budget. The
+     * solver stops at whichever comes first, its own iteration cap, or a
+     * valid coloring, and leaves its best coloring in the graph
+     * @param timeLimitMillis : milliseconds allowed, 0 for no deadline
+     * @param decisionBudget : decisions allowed, Long.MAX_VALUE for no budget
+     * @return the status and a copy of the coloring the solver ended with
+     */
+    public SolveResult solve(long timeLimitMillis, long decisionBudget)
+    {
+        this.decisionBudget = decisionBudget;
+        provenUnsatisfiable = false;
+        AtomicBoolean runCancelled = cancelled;
+        ScheduledFuture<?> deadline = timeLimitMillis > 0
+                ? deadlineTimer.schedule(() -> runCancelled.set(true), timeLimitMillis, TimeUnit.MILLISECONDS) : null;
+        TraceLog.event(TraceLog.Level.INFO, TraceLog.Event.SOLVE_START, compactGraph.getNumVertices(), compactGraph.getNumEdges());
+        try
+        {
+            runMeasured();
+        } finally
+        {
+            if (deadline != null)
+            {
+                deadline.cancel(false);
+            }
+            this.decisionBudget = Long.MAX_VALUE;
+            cancelled = new AtomicBoolean();
+            if (parent != null)
+            {
+                parent.childDecisions.addAndGet(decisionsMade - publishedDecisions.getAndSet(decisionsMade));
+            }
+        }
+
+        // the map based solvers only color graph, the CSR solvers write theirs back to it
+        compactGraph.readColorsFrom(graph);
+        SolveStatus status;
+        coloringValid = compactGraph.satisfiesConstraint();
+        if (coloringValid)
+        {
+            status = SolveStatus.SOLVED;
+        }
+        else if (provenUnsatisfiable)
+        {
+            status = SolveStatus.PROVEN_UNSAT;
+        }
+        else
+        {
+            status = SolveStatus.TIMED_OUT;
+        }
+        TraceLog.event(TraceLog.Level.INFO, TraceLog.Event.SOLVE_END, (int) Math.min(Integer.MAX_VALUE, decisionsMade),
+                status == SolveStatus.SOLVED ? 1 : 0);
+        return new SolveResult(status, compactGraph.colors.clone(), compactGraph.calculateFitness(), decisionsMade,
+                elapsedNanos, allocatedBytes);
+    }
+    
+    /**
+     * runSolver(), recording its wall clock time and allocations for the
+     * result calculator
+     */
+    void runMeasured()
+    {
+        childDecisions.set(0);
+        publishedDecisions.set(0);
+        long threadId = Thread.currentThread().getId();
+        long startBytes = threadBean == null ? -1 : threadBean.getThreadAllocatedBytes(threadId);
+        long startTime = System.nanoTime();
+        try
+        {
+            runSolver();
+        } finally
+        {
+            elapsedNanos = System.nanoTime() - startTime;
+            allocatedBytes = startBytes == -1 || usesHelperThreads()
+                    ? -1 : threadBean.getThreadAllocatedBytes(threadId) - startBytes;
+        }
+    }
+    
+    /**
+     * Solvers that hand their work to pool threads return true, the calling
+     * thread's allocations would leave most of theirs out
+     * @return true if the solver allocates on threads other than the one
+     * calling runSolver()
+     */
+    protected boolean usesHelperThreads()
+    {
+        return false;
+    }
+    
+    /**
+     * @return the HotSpot thread bean if it can count allocated bytes, or null
+     */
+    private static com.sun.management.ThreadMXBean threadBean()
+    {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean)
+        {
+            com.sun.management.ThreadMXBean hotSpotBean = (com.sun.management.ThreadMXBean) bean;
+            if (hotSpotBean.isThreadAllocatedMemorySupported() && hotSpotBean.isThreadAllocatedMemoryEnabled())
+            {
+                return hotSpotBean;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Repair the coloring of the solver's graph after it was changed through
+     * Graph's add and remove methods. If the last solve() or recolor() left a
+     * valid coloring, the conflicts the changes caused are fixed locally by a
+     * LocalRepair, at a cost that follows the size of the change. Otherwise,
+     * or if the repair fails, the whole graph is solved again starting over
+     * from an uncolored graph
+     * @param timeLimitMillis : milliseconds allowed for a full solve, 0 for no deadline
+     * @param decisionBudget : decisions allowed for a full solve
+     * @return SOLVED if the graph is validly colored again. The coloring is
+     * left in the graph
+     */
+    public SolveStatus recolor(long timeLimitMillis, long decisionBudget)
+    {
+        Set<Integer> changed = graph.takeChangedVertices();
+        if (coloringValid)
+        {
+            LocalRepair repair = new LocalRepair(graph, maxColors);
+            boolean repaired = repair.repair(changed);
+            decisionsMade += repair.getMoves();
+            if (repaired)
+            {
+                // the cached CSR form is from before the change, a later
+                // solve() would search the old graph
+                compactGraph = graph.getCompactGraph();
+                return SolveStatus.SOLVED;
+            }
+            runs.format("Local repair of %d changed vertices failed after %d moves, solving the whole graph.%n",
+                    changed.size(), repair.getMoves());
+        }
+        // the graph changed so the CSR form is built again
+        updateGraph(graph);
+        setMaxColors(maxColors);
+        return solve(timeLimitMillis, decisionBudget).getStatus();
+    }
+    
+    /**
+     * Solver loops call this once per step
+     * @param decisions : decisions made so far in the run
+     * @return true if the solver was cancelled, its deadline passed or the
+     * decision budget is used up
+     */
+    protected boolean outOfBudget(long decisions)
+    {
+        return cancelled.get() || decisions >= decisionBudget || (parent != null && parentOutOfBudget(decisions));
+    }
+    
+    /**
+     * A child stops once the decisions of every child of its parent together
+     * use up the parent's budget. They are reported to the parent in batches
+     * so children running at the same time do not contend on every decision.
+     * The batches shrink as the parent's budget runs out, so children running
+     * together can only overshoot it a little
+     * @param decisions : decisions this child has made in its run
+     * @return true if the parent was cancelled or its budget is used up
+     */
+    private boolean parentOutOfBudget(long decisions)
+    {
+        if (parent.cancelled.get())
+        {
+            return true;
+        }
+        long budget = parent.decisionBudget;
+        if (budget == Long.MAX_VALUE)
+        {
+            // reported once when the run ends
+            return false;
+        }
+        long published = publishedDecisions.get();
+        long unpublished = decisions - published;
+        long total = parent.childDecisions.get();
+        if (unpublished > 0 && unpublished >= Math.min(publishInterval, (budget - total) / publishShare)
+                && publishedDecisions.compareAndSet(published, decisions))
+        {
+            total = parent.childDecisions.addAndGet(unpublished);
+            unpublished = 0;
+        }
+        return total + Math.max(0, unpublished) >= budget;
+    }
+    
+    /**
+     * @return outOfBudget(decisionsMade)
+     */
+    protected boolean outOfBudget()
+    {
+        return outOfBudget(decisionsMade);
+    }
+    
+    /**
+     * For solvers that hand part of their run to other solvers
+     * @return the decisions the current solve() allows, Long.MAX_VALUE for
+     * no budget
+     */
+    protected long getDecisionBudget()
+    {
+        return decisionBudget;
+    }
+    
+    /**
+     * @return the decisions this run's child solvers have reported. Children
+     * report all of theirs when their solve() returns
+     */
+    protected long getChildDecisions()
+    {
+        return childDecisions.get();
+    }
+    
+    /**
+     * Count decisions made for this run outside a child solver alongside the
+     * children's, so the children see them against the budget
+     * @param decisions : decisions to add
+     */
+    protected void addChildDecisions(long decisions)
+    {
+        childDecisions.addAndGet(decisions);
+    }
+    
     /**
      * replace the current graph references with the next graph to run the 
      * solver on 
@@ -46,6 +320,8 @@ public abstract class ConstraintSolver
     {
         this.graph = graph;
         this.theGraph = graph.theGraph;
+        coloringValid = false;
+        this.compactGraph = graph.getCompactGraph();
     }
     
     /**
@@ -101,6 +377,39 @@ public abstract class ConstraintSolver
         return true;
     }
     
+    /**
+     * Look for a clique with more vertices than maxColors before searching.
+     * Every vertex of a clique needs a different color, so finding one
+     * proves the graph cannot be colored without making any decisions
+     * @return true if the graph was shown to need more than maxColors colors
+     */
+    protected boolean refutedByClique()
+    {
+        int[] clique = compactGraph.greedyClique();
+        if (clique.length > maxColors)
+        {
+            provenUnsatisfiable = true;
+            runs.format("Found a clique of %d nodes %s, no %d coloring exists.%n",
+                    clique.length, java.util.Arrays.toString(clique), maxColors);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Colors are interchangeable, so a vertex only needs to try the colors
+     * already in use plus one new one. Skipping the other unused colors
+     * removes the k! relabelings of every coloring from the search
+     * @param highestUsed : the highest color used so far, -1 if none
+     * @param maxColors : number of colors allowed
+     * @return bitmask of the colors 0 to highestUsed + 1
+     */
+    protected static long symmetryMask(int highestUsed, int maxColors)
+    {
+        int numAllowed = Math.min(highestUsed + 2, maxColors);
+        return numAllowed >= 64 ? -1L : (1L << numAllowed) - 1;
+    }
+
     /**
      * resets decisionsMade
      * This is called by driver after each instance run has finished
@@ -108,6 +417,29 @@ public abstract class ConstraintSolver
     protected void resetRunMetrics()
     {
         decisionsMade = 0;
+        elapsedNanos = 0;
+        allocatedBytes = 0;
+        provenUnsatisfiable = false;
+    }
+    
+    /**
+     * The child's decisions are reported to the parent and count against the
+     * parent's decision budget, see getChildDecisions()
+     * @param parent : the solver this one solves part of the graph for. When
+     * it is cancelled this solver stops as well
+     */
+    void setParent(ConstraintSolver parent)
+    {
+        this.parent = parent;
+    }
+    
+    /**
+     * Ask the solver to stop at its next check, or the next run to stop at
+     * once if none is running. Safe to call from any thread
+     */
+    public void cancel()
+    {
+        cancelled.set(true);
     }
     
 
@@ -115,11 +447,28 @@ public abstract class ConstraintSolver
     /**
      * @return the decisionsMade
      */
-    public int getDecisionsMade() 
+    public long getDecisionsMade() 
     {
         return decisionsMade;
     }
     
+    /**
+     * @return wall clock nanoseconds of the last run
+     */
+    public long getElapsedNanos() 
+    {
+        return elapsedNanos;
+    }
+    
+    /**
+     * @return bytes the last run allocated on its calling thread, -1 if the
+     * JVM does not report allocations or the solver uses helper threads
+     */
+    public long getAllocatedBytes() 
+    {
+        return allocatedBytes;
+    }
+    
     /**
      * @return the satisfiesConstraint
      */
@@ -129,6 +478,15 @@ public abstract class ConstraintSolver
         return satisfiesConstraint;
     }
     
+    /**
+     * @return true if cancel() was called for the current run, on this
+     * solver or its parent
+     */
+    public boolean isCancelled() 
+    {
+        return cancelled.get() || (parent != null && parent.cancelled.get());
+    }
+    
     public void setMaxColors(int max) 
     {
         maxColors = max; 
@@ -0,0 +1,292 @@
+package GraphColoring;
+
+/**
+ * Graph coloring constraint solver using backtracking in DSATUR order.
+ * The next vertex colored is always the uncolored vertex with the most
+ * distinct colors among its neighbors (its saturation). Works on the CSR
+ * graph with the colors used around each vertex kept as a long bitmask,
+ * so at most 64 colors are supported.
+ *
+ * @version 10/18/26
+ */
+public class DSaturSolver extends ConstraintSolver
+{
+    // stop searching after this many decisions so impossible instances end
+    private final int maxDecisions = 5000000;
+
+    private int numPoints;
+    private int[] colors;
+    private int[] offsets;
+    private int[] neighbors;
+    private long allColors;
+
+    // neighborColorCount[v * maxColors + c] is how many neighbors of v have color c
+    private int[] neighborColorCount;
+    // bit c is set if at least one neighbor of v has color c
+    private long[] usedColors;
+
+    /**
+     * Uncolored vertices are kept in one doubly linked list per saturation
+     * value. Ties inside a bucket go to the vertex whose saturation changed
+     * most recently, and at the start to the vertex with the highest degree.
+     */
+    private int[] bucketHead;
+    private int[] nextInBucket;
+    private int[] prevInBucket;
+    private int highestBucket;
+
+    // the vertex colored at each depth, the colors it still has to try and
+    // the highest color used at or below that depth
+    private int[] stackVertex;
+    private long[] stackRemaining;
+    private int[] stackHighestColor;
+
+    public DSaturSolver()
+    {
+
+    }
+
+    @Override
+    public void runSolver()
+    {
+        initialize();
+        boolean validColoring = !refutedByClique() && search();
+        compactGraph.writeColorsTo(graph);
+
+        runs.println();
+        runs.println("=== Program Output Values ===");
+        runs.format("Valid Coloring: %b, with %d out of %d nodes correctly colored.%n",
+                validColoring, compactGraph.calculateFitness(), compactGraph.getNumVertices());
+        runs.format("Decisions Made: %d%n", decisionsMade);
+    }
+
+    /**
+     * Set up the color counts, saturation buckets and search stack
+     */
+    private void initialize()
+    {
+        if (maxColors > 64)
+        {
+            throw new RuntimeException("DSaturSolver supports at most 64 colors, " + maxColors + " requested.");
+        }
+        numPoints = compactGraph.getNumVertices();
+        offsets = compactGraph.offsets;
+        neighbors = compactGraph.neighbors;
+        colors = compactGraph.colors;
+        compactGraph.clearColors();
+        allColors = maxColors == 64 ? -1L : (1L << maxColors) - 1;
+        decisionsMade = 0;
+
+        neighborColorCount = new int[numPoints * maxColors];
+        usedColors = new long[numPoints];
+        bucketHead = new int[maxColors + 1];
+        nextInBucket = new int[numPoints];
+        prevInBucket = new int[numPoints];
+        stackVertex = new int[numPoints];
+        stackRemaining = new long[numPoints];
+        stackHighestColor = new int[numPoints];
+        java.util.Arrays.fill(bucketHead, -1);
+        highestBucket = 0;
+
+        // insert lowest degree first so the highest degree ends up at the head
+        int maxDegree = 0;
+        for (int v = 0; v < numPoints; v++)
+        {
+            maxDegree = Math.max(maxDegree, compactGraph.degree(v));
+        }
+        int[] degreeStart = new int[maxDegree + 2];
+        for (int v = 0; v < numPoints; v++)
+        {
+            degreeStart[compactGraph.degree(v) + 1]++;
+        }
+        for (int d = 0; d <= maxDegree; d++)
+        {
+            degreeStart[d + 1] += degreeStart[d];
+        }
+        int[] byDegree = new int[numPoints];
+        for (int v = 0; v < numPoints; v++)
+        {
+            byDegree[degreeStart[compactGraph.degree(v)]++] = v;
+        }
+        for (int v : byDegree)
+        {
+            insertIntoBucket(v, 0);
+        }
+    }
+
+    /**
+     * Iterative backtracking over vertices in DSATUR order
+     * @return true if every vertex was given a valid color
+     */
+    private boolean search()
+    {
+        int depth = 0;
+        boolean descending = true;
+
+        while (decisionsMade < maxDecisions && !outOfBudget())
+        {
+            if (descending)
+            {
+                if (depth == numPoints)
+                {
+                    return true;
+                }
+                // pick the most saturated vertex and try its free colors,
+                // with at most one color that is not used yet
+                int vertex = bucketHead[highestBucket];
+                removeFromBucket(vertex);
+                int highestUsed = depth == 0 ? -1 : stackHighestColor[depth - 1];
+                stackVertex[depth] = vertex;
+                stackRemaining[depth] = ~usedColors[vertex] & symmetryMask(highestUsed, maxColors);
+            }
+
+            int vertex = stackVertex[depth];
+            if (colors[vertex] != -1)
+            {
+                uncolor(vertex);
+            }
+
+            long remaining = stackRemaining[depth];
+            boolean placed = false;
+            while (remaining != 0)
+            {
+                int color = Long.numberOfTrailingZeros(remaining);
+                remaining &= remaining - 1;
+                decisionsMade++;
+                if (color(vertex, color))
+                {
+                    placed = true;
+                    break;
+                }
+                // a neighbor ran out of colors, undo and try the next one
+                uncolor(vertex);
+            }
+            stackRemaining[depth] = remaining;
+
+            if (placed)
+            {
+                stackHighestColor[depth] = Math.max(colors[vertex], depth == 0 ? -1 : stackHighestColor[depth - 1]);
+                depth++;
+                descending = true;
+            }
+            else
+            {
+                // every color failed, put the vertex back and backtrack
+                insertIntoBucket(vertex, Long.bitCount(usedColors[vertex]));
+                depth--;
+                if (depth < 0)
+                {
+                    provenUnsatisfiable = true;
+                    return false;
+                }
+                descending = false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Give vertex the color and update the saturation of its neighbors
+     * @return false if an uncolored neighbor was left with no free color
+     */
+    private boolean color(int vertex, int color)
+    {
+        colors[vertex] = color;
+        long bit = 1L << color;
+        boolean consistent = true;
+        for (int i = offsets[vertex]; i < offsets[vertex + 1]; i++)
+        {
+            int neighbor = neighbors[i];
+            if (neighborColorCount[neighbor * maxColors + color]++ == 0)
+            {
+                usedColors[neighbor] |= bit;
+                if (colors[neighbor] == -1)
+                {
+                    removeFromBucket(neighbor);
+                    insertIntoBucket(neighbor, Long.bitCount(usedColors[neighbor]));
+                    if (usedColors[neighbor] == allColors)
+                    {
+                        consistent = false;
+                    }
+                }
+            }
+        }
+        return consistent;
+    }
+
+    /**
+     * Remove vertex's color and lower the saturation of its neighbors
+     */
+    private void uncolor(int vertex)
+    {
+        int color = colors[vertex];
+        colors[vertex] = -1;
+        long bit = 1L << color;
+        for (int i = offsets[vertex]; i < offsets[vertex + 1]; i++)
+        {
+            int neighbor = neighbors[i];
+            if (--neighborColorCount[neighbor * maxColors + color] == 0)
+            {
+                usedColors[neighbor] &= ~bit;
+                if (colors[neighbor] == -1 && !onStack(neighbor))
+                {
+                    removeFromBucket(neighbor);
+                    insertIntoBucket(neighbor, Long.bitCount(usedColors[neighbor]));
+                }
+            }
+        }
+    }
+
+    /**
+     * The vertex being undone at the top of the stack is uncolored but is
+     * not in a bucket. It is marked by pointing its links at itself.
+     */
+    private boolean onStack(int vertex)
+    {
+        return nextInBucket[vertex] == vertex;
+    }
+
+    // <editor-fold defaultstate="collapsed" desc="Saturation bucket queue">
+    private void insertIntoBucket(int vertex, int saturation)
+    {
+        int head = bucketHead[saturation];
+        nextInBucket[vertex] = head;
+        prevInBucket[vertex] = -1 - saturation;
+        if (head != -1)
+        {
+            prevInBucket[head] = vertex;
+        }
+        bucketHead[saturation] = vertex;
+        if (saturation > highestBucket)
+        {
+            highestBucket = saturation;
+        }
+    }
+
+    private void removeFromBucket(int vertex)
+    {
+        int next = nextInBucket[vertex];
+        int prev = prevInBucket[vertex];
+        if (prev < 0)
+        {
+            // vertex was the head, prev encodes which bucket it is in
+            bucketHead[-1 - prev] = next;
+        }
+        else
+        {
+            nextInBucket[prev] = next;
+        }
+        if (next != -1)
+        {
+            prevInBucket[next] = prev;
+        }
+        nextInBucket[vertex] = vertex;
+        prevInBucket[vertex] = vertex;
+
+        while (highestBucket > 0 && bucketHead[highestBucket] == -1)
+        {
+            highestBucket--;
+        }
+    }
+    // </editor-fold>
+}
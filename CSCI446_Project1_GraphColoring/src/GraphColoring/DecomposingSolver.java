@@ -0,0 +1,241 @@
+package GraphColoring;
+
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Graph coloring solver that splits the graph into its biconnected blocks
+ * (see GraphDecomposition), colors every block on its own and joins the
+ * colorings. Search cost grows exponentially with the size of the graph
+ * searched, so many small searches are far cheaper than one large one, and
+ * the blocks are independent so they are colored in parallel on the common
+ * fork/join pool.
+ *
+ * Blocks with no more vertices than colors are colored directly, the rest by
+ * a new instance of the block solver class. The block colorings are then
+ * joined along the block-cut tree: each block is placed next to a block it
+ * shares an articulation point with, swapping two of its colors so it agrees
+ * on that point. One block being uncolorable proves the graph is too.
+ *
+ * @version 10/18/26
+ */
+public class DecomposingSolver extends ConstraintSolver
+{
+    // the text output of the block solvers would repeat once per block
+    private static final PrintWriter discard = new PrintWriter(new Writer()
+    {
+        @Override
+        public void write(char[] buffer, int offset, int length)
+        {
+
+        }
+
+        @Override
+        public void flush()
+        {
+
+        }
+
+        @Override
+        public void close()
+        {
+
+        }
+    });
+
+    // solver used on each block with more vertices than colors
+    private final Class<? extends ConstraintSolver> blockSolverClass;
+    private volatile boolean blockUnsatisfiable;
+
+    public DecomposingSolver()
+    {
+        this(ConflictDirectedBackjumpingSolver.class);
+    }
+
+    /**
+     * @param blockSolverClass : the solver to color each block with
+     */
+    public DecomposingSolver(Class<? extends ConstraintSolver> blockSolverClass)
+    {
+        this.blockSolverClass = blockSolverClass;
+    }
+
+    @Override
+    public void runSolver()
+    {
+        decisionsMade = 0;
+        blockUnsatisfiable = false;
+
+        GraphDecomposition decomposition = new GraphDecomposition(compactGraph);
+        int numBlocks = decomposition.getNumBlocks();
+        int[][] blockColors = new int[numBlocks][];
+        IntStream.range(0, numBlocks).parallel().forEach(b -> blockColors[b] = colorBlock(decomposition, b));
+        decisionsMade = getChildDecisions();
+        provenUnsatisfiable = blockUnsatisfiable;
+        joinBlocks(decomposition, blockColors);
+        compactGraph.writeColorsTo(graph);
+
+        int largestBlock = 0;
+        for (int b = 0; b < numBlocks; b++)
+        {
+            largestBlock = Math.max(largestBlock, decomposition.getBlockSize(b));
+        }
+        runs.println();
+        runs.println("=== Program Output Values ===");
+        runs.format("Split into %d components and %d blocks, the largest block has %d vertices.%n",
+                decomposition.getNumComponents(), numBlocks, largestBlock);
+        runs.format("Valid Coloring: %b, with %d out of %d nodes correctly colored.%n",
+                compactGraph.satisfiesConstraint(), compactGraph.calculateFitness(), compactGraph.getNumVertices());
+        runs.format("Decisions Made: %d%n", decisionsMade);
+    }
+
+    @Override
+    protected boolean usesHelperThreads()
+    {
+        return true;
+    }
+
+    /**
+     * @return the colors of block b's vertices, in getBlock(b) order. -1
+     * where the block solver stopped before coloring a vertex
+     */
+    private int[] colorBlock(GraphDecomposition decomposition, int b)
+    {
+        int size = decomposition.getBlockSize(b);
+        int[] colors = new int[size];
+        if (size <= maxColors)
+        {
+            // small enough that every vertex gets its own color
+            for (int i = 0; i < size; i++)
+            {
+                colors[i] = i;
+            }
+            addChildDecisions(size);
+            return colors;
+        }
+        if (outOfBudget(getChildDecisions()))
+        {
+            Arrays.fill(colors, -1);
+            return colors;
+        }
+
+        ConstraintSolver solver;
+        try
+        {
+            solver = blockSolverClass.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e)
+        {
+            throw new RuntimeException("Can not create a " + blockSolverClass.getSimpleName() + " for a block.", e);
+        }
+        solver.updateGraph(decomposition.blockGraph(b).toGraph(discard));
+        solver.setMaxColors(maxColors);
+        solver.assignPrintWriter(discard);
+        solver.setParent(this);
+        // the block solvers running at the same time share what is left of
+        // the budget through their parent, see ConstraintSolver.setParent()
+        SolveResult result = solver.solve(0, getDecisionBudget() - getChildDecisions());
+        if (result.getStatus() == SolveStatus.PROVEN_UNSAT)
+        {
+            // the whole graph can not be colored either, stop the other blocks
+            blockUnsatisfiable = true;
+            cancel();
+        }
+        return result.getColors();
+    }
+
+    /**
+     * Write the block colorings into compactGraph.colors, walking the
+     * block-cut tree from one block of each component. A block is placed
+     * through the one articulation point it shares with the blocks placed
+     * before it, with the two colors swapped that make it agree there
+     */
+    private void joinBlocks(GraphDecomposition decomposition, int[][] blockColors)
+    {
+        int n = compactGraph.getNumVertices();
+        int numBlocks = decomposition.getNumBlocks();
+        int[] colors = compactGraph.colors;
+
+        // the blocks each vertex belongs to, more than one for articulation points
+        int[] vertexBlockOffsets = new int[n + 1];
+        int[][] members = new int[numBlocks][];
+        for (int b = 0; b < numBlocks; b++)
+        {
+            members[b] = decomposition.getBlock(b);
+            for (int v : members[b])
+            {
+                vertexBlockOffsets[v + 1]++;
+            }
+        }
+        for (int v = 0; v < n; v++)
+        {
+            vertexBlockOffsets[v + 1] += vertexBlockOffsets[v];
+        }
+        int[] vertexBlocks = new int[vertexBlockOffsets[n]];
+        int[] next = Arrays.copyOf(vertexBlockOffsets, n);
+        for (int b = 0; b < numBlocks; b++)
+        {
+            for (int v : members[b])
+            {
+                vertexBlocks[next[v]++] = b;
+            }
+        }
+
+        boolean[] placed = new boolean[numBlocks];
+        int[] queue = new int[numBlocks];
+        for (int root = 0; root < numBlocks; root++)
+        {
+            if (placed[root])
+            {
+                continue;
+            }
+            placed[root] = true;
+            placeBlock(members[root], blockColors[root], -1, -1, colors);
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = root;
+            while (head < tail)
+            {
+                int b = queue[head++];
+                for (int v : members[b])
+                {
+                    for (int i = vertexBlockOffsets[v]; i < vertexBlockOffsets[v + 1]; i++)
+                    {
+                        int c = vertexBlocks[i];
+                        if (placed[c])
+                        {
+                            continue;
+                        }
+                        placed[c] = true;
+                        int local = Arrays.binarySearch(members[c], v);
+                        placeBlock(members[c], blockColors[c], blockColors[c][local], colors[v], colors);
+                        queue[tail++] = c;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Copy a block's colors into the graph's colors with colors from and to
+     * swapped. Nothing is swapped if either is -1
+     */
+    private static void placeBlock(int[] members, int[] blockColors, int from, int to, int[] colors)
+    {
+        boolean swap = from != -1 && to != -1;
+        for (int i = 0; i < members.length; i++)
+        {
+            int color = blockColors[i];
+            if (swap && color == from)
+            {
+                color = to;
+            }
+            else if (swap && color == to)
+            {
+                color = from;
+            }
+            colors[members[i]] = color;
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package GraphColoring;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads and writes graphs in the DIMACS graph coloring (.col) format used by
+ * the standard benchmark instances:
+ *
+ *   c comment line
+ *   p edge [vertices] [edges]
+ *   e [u] [v]
+ *
+ * Vertices are numbered from 1 in the file and from 0 in the graph. The
+ * reader streams the file through one buffer and parses numbers
+ * straight from the bytes, so it makes no String or object per line. Self
+ * loops are dropped and an edge listed more than once, or in both
+ * directions, is kept once. DIMACS instances have no vertex locations, every
+ * vertex is placed at (0, 0).
+ *
+ * @version 10/18/26
+ */
+public final class DimacsFormat
+{
+    private static final int bufferSize = 1 << 16;
+
+    private DimacsFormat()
+    {
+
+    }
+
+    /**
+     * @param file : the .col file
+     * @param run : writer used for text file output by the Graph
+     * @return the instance as a map based graph, with its CSR form attached
+     */
+    public static Graph read(File file, PrintWriter run) throws IOException
+    {
+        return readCompact(file).toGraph(run);
+    }
+
+    /**
+     * @param file : the .col file
+     * @return the instance in CSR form
+     */
+    public static CompactGraph readCompact(File file) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+        {
+            return new Parser(channel, file).parse();
+        }
+    }
+
+    /**
+     * Write graph's edges as a .col file, each undirected edge once
+     * @param graph : the graph to export
+     * @param file : where to write it
+     * @param comment : written as a c line at the top of the file, may be null
+     */
+    public static void write(CompactGraph graph, File file, String comment) throws IOException
+    {
+        int n = graph.getNumVertices();
+        try (BufferedWriter out = new BufferedWriter(new FileWriter(file), bufferSize))
+        {
+            if (comment != null)
+            {
+                out.write("c ");
+                out.write(comment);
+                out.newLine();
+            }
+            out.write("p edge " + n + " " + graph.getNumEdges());
+            out.newLine();
+            for (int v = 0; v < n; v++)
+            {
+                for (int i = graph.offsets[v]; i < graph.offsets[v + 1]; i++)
+                {
+                    int neighbor = graph.neighbors[i];
+                    if (v < neighbor)
+                    {
+                        out.write("e ");
+                        out.write(Integer.toString(v + 1));
+                        out.write(' ');
+                        out.write(Integer.toString(neighbor + 1));
+                        out.newLine();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Byte level reader for one file
+     */
+    private static class Parser
+    {
+        private final FileChannel channel;
+        private final File file;
+        // the channel reads into bytes through buffer, parsing indexes bytes
+        // directly which is much cheaper than a get() per byte
+        private final byte[] bytes = new byte[bufferSize];
+        private final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        private int position = 0;
+        private int limit = 0;
+        private int line = 1;
+
+        private int numVertices = -1;
+        // each edge packed as (smaller vertex << 32) | larger vertex so
+        // sorting the keys groups duplicates together
+        private long[] edges = new long[16];
+        private int numEdges = 0;
+
+        Parser(FileChannel channel, File file)
+        {
+            this.channel = channel;
+            this.file = file;
+        }
+
+        CompactGraph parse() throws IOException
+        {
+            int c;
+            while ((c = next()) != -1)
+            {
+                switch (c)
+                {
+                    case 'p':
+                        readProblemLine();
+                        break;
+                    case 'e':
+                        readEdge();
+                        break;
+                    case '\n':
+                        line++;
+                        break;
+                    case ' ':
+                    case '\t':
+                    case '\r':
+                        break;
+                    default:
+                        // comments and the optional n / x lines carry nothing we use
+                        skipLine();
+                        break;
+                }
+            }
+            if (numVertices == -1)
+            {
+                throw error("no \"p edge\" line found");
+            }
+            return buildGraph();
+        }
+
+        private void readProblemLine() throws IOException
+        {
+            if (numVertices != -1)
+            {
+                throw error("second \"p\" line");
+            }
+            // the format word, "edge" or "col"
+            int c = skipSpaces();
+            while (c != -1 && c != ' ' && c != '\t' && c != '\n')
+            {
+                c = next();
+            }
+            numVertices = readInt();
+            int declaredEdges = readInt();
+            edges = new long[Math.max(16, declaredEdges)];
+            skipLine();
+        }
+
+        private void readEdge() throws IOException
+        {
+            if (numVertices == -1)
+            {
+                throw error("edge before the \"p\" line");
+            }
+            int a = readInt() - 1;
+            int b = readInt() - 1;
+            if (a < 0 || b < 0 || a >= numVertices || b >= numVertices)
+            {
+                throw error("vertex out of range 1.." + numVertices);
+            }
+            skipLine();
+            if (a == b)
+            {
+                return;
+            }
+            if (numEdges == edges.length)
+            {
+                edges = Arrays.copyOf(edges, numEdges * 2);
+            }
+            edges[numEdges++] = ((long) Math.min(a, b) << 32) | Math.max(a, b);
+        }
+
+        private CompactGraph buildGraph()
+        {
+            Arrays.sort(edges, 0, numEdges);
+            int[] sources = new int[numEdges];
+            int[] targets = new int[numEdges];
+            int unique = 0;
+            for (int i = 0; i < numEdges; i++)
+            {
+                if (i > 0 && edges[i] == edges[i - 1])
+                {
+                    continue;
+                }
+                sources[unique] = (int) (edges[i] >>> 32);
+                targets[unique] = (int) edges[i];
+                unique++;
+            }
+            return CompactGraph.fromEdgeList(numVertices, sources, targets, unique,
+                    new double[numVertices], new double[numVertices]);
+        }
+
+        // <editor-fold defaultstate="collapsed" desc="Byte reading">
+        /**
+         * @return the next byte of the file, or -1 at the end
+         */
+        private int next() throws IOException
+        {
+            if (position == limit)
+            {
+                buffer.clear();
+                int read;
+                do
+                {
+                    read = channel.read(buffer);
+                } while (read == 0);
+                if (read == -1)
+                {
+                    return -1;
+                }
+                position = 0;
+                limit = read;
+            }
+            // masked, a 0xFF byte would otherwise read as the end of the file
+            return bytes[position++] & 0xFF;
+        }
+
+        /**
+         * @return the first byte that is not a space or tab
+         */
+        private int skipSpaces() throws IOException
+        {
+            int c;
+            do
+            {
+                c = next();
+            } while (c == ' ' || c == '\t');
+            return c;
+        }
+
+        private void skipLine() throws IOException
+        {
+            int c;
+            do
+            {
+                c = next();
+            } while (c != '\n' && c != -1);
+            line++;
+        }
+
+        /**
+         * Read a non negative decimal number. The byte after it is consumed
+         * unless it is the newline, which is left for skipLine()
+         */
+        private int readInt() throws IOException
+        {
+            int c = skipSpaces();
+            if (c < '0' || c > '9')
+            {
+                throw error("expected a number");
+            }
+            long value = 0;
+            while (c >= '0' && c <= '9')
+            {
+                value = value * 10 + (c - '0');
+                if (value > Integer.MAX_VALUE)
+                {
+                    throw error("number too large");
+                }
+                c = next();
+            }
+            if (c == '\n')
+            {
+                // give the newline back so skipLine() does not eat the next line
+                position--;
+            }
+            return (int) value;
+        }
+
+        private IOException error(String message)
+        {
+            return new IOException(file + " line " + line + ": " + message);
+        }
+        // </editor-fold>
+    }
+}
@@ -3,6 +3,10 @@ package GraphColoring;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.io.PrintWriter;
 import java.io.FileWriter;
 import java.io.*;
@@ -38,18 +42,56 @@ public class Driver
             BacktrackingForwardCheckingSolver.class,
             BacktrackingPropagationSolver.class,
             MinConflictsSolver.class,
-            GeneticAlgorithmSolver.class
+            GeneticAlgorithmSolver.class,
+            DSaturSolver.class,
+            ConflictDirectedBackjumpingSolver.class,
+            DecomposingSolver.class,
+            PlanarColoringSolver.class,
+            ParallelBacktrackingSolver.class,
+            TabucolSolver.class,
+            MemeticSolver.class
     );
+    // race every solver at once on each graph and keep only the first valid
+    // coloring, instead of running each solver to completion one at a time
+    private final static boolean portfolioMode = false;
+    // wall clock limit for each solver run in milliseconds, 0 for none
+    private final static long timeLimitMillis = 0;
+    // most decisions each solver run may make, Long.MAX_VALUE for no limit
+    private final static long decisionBudget = Long.MAX_VALUE;
+    // directory of stored graph instances to replay. Each graph of each run
+    // suite iteration is generated and stored the first time, then loaded on
+    // every later run. Empty generates fresh graphs every time
+    private final static String instanceDirectory = "";
+    // DIMACS .col file every graph of every iteration is read from instead,
+    // for running the solvers on the standard benchmark instances. Empty to
+    // generate or replay graphs as above
+    private final static String dimacsFile = "";
+    // solver events at this level and below go to trace.csv. DEBUG also
+    // brings back the graph dumps in the runs log
+    private final static TraceLog.Level traceLevel = TraceLog.Level.OFF;
 
     /**
      * results and runs PrintWriter
      */
     private static PrintWriter results_log;
     private static PrintWriter run_log;
+    // how many run suite iterations may run at the same time
+    private final static int numThreads = Runtime.getRuntime().availableProcessors();
 
-    public static void main(String[] args) throws InstantiationException, IllegalAccessException
+    public static void main(String[] args) throws InstantiationException, IllegalAccessException, InterruptedException, ExecutionException
     {
+        if (traceLevel != TraceLog.Level.OFF)
+        {
+            try
+            {
+                TraceLog.open(new File("Output_Files_Results_and_Logs", "trace.csv"), traceLevel);
+            } catch (IOException e)
+            {
+                System.err.println("Caught IOException: " + e.getMessage());
+            }
+        }
         runSolvers();
+        TraceLog.close();
     }
 
     /**
@@ -58,14 +100,15 @@ public class Driver
      * run its algorithm on the current graph, generate the next graph and
      * repeat.
      */
-    private static void runSolvers() throws InstantiationException, IllegalAccessException
+    private static void runSolvers() throws InstantiationException, IllegalAccessException, InterruptedException, ExecutionException
     {
         // run the entire process n amount of times for n results on n different graph sizes
         for (int newRun = 0; newRun < numRuns; newRun++)
         {
             // <editor-fold defaultstate="collapsed" desc="Prerequisite setup before the run actually happens">
             int numVertices = initialNumVertices;
-            ArrayList<ConstraintSolver> solvers = instantiateSolvers();
+            PortfolioRunner portfolio = portfolioMode 
+                    ? new PortfolioRunner(solverList, numThreads) : null;
 
             // name of current run of experiment for logging .txt files (not official output)
             String filename = "instance_suite_testing";
@@ -96,54 +139,44 @@ public class Driver
             // run suite
             ResultCalculator calc = new ResultCalculator(resultsFilename, maxColors, runSuiteIterations, numberOfGraphs, initialNumVertices, vertexGrowthSize);
             calc.setRunType("Run Suite");
-            // repeat [run_suite_iterations] times
+            // repeat [run_suite_iterations] times. Iterations are independent
+            // so they run in parallel, the portfolio already uses every core
             results_log.println("Beginning Run Suite...");
+            int suiteThreads = portfolioMode ? 1 : numThreads;
+            calc.setConcurrentRuns(Math.min(suiteThreads, runSuiteIterations));
+            ExecutorService suitePool = Executors.newFixedThreadPool(suiteThreads);
+            ArrayList<Future<String[]>> iterations = new ArrayList<>(runSuiteIterations);
             for (int iteration = 0; iteration < runSuiteIterations; iteration++)
             {
-//                results_log.format("%n== Run suite iteration: %d ==%n", iteration);
-                System.out.println("\n= Run suite iteration: " + iteration + " =");
-
-                // while there are more graphs to generate
-                for (int i = 0; i < numberOfGraphs; i++)
+                int currentIteration = iteration;
+                iterations.add(suitePool.submit(() -> runSuiteIteration(currentIteration, calc, portfolio)));
+            }
+            try
+            {
+                // write each iteration's buffered output in order so the logs
+                // read the same as a sequential run
+                for (Future<String[]> iteration : iterations)
                 {
-//                    results_log.format("%n= Graph iteration: %d =%n", i);
-
-                    Graph currentGraph = new Graph_Generator(numVertices, run_log).generateGraph();
-                    for (ConstraintSolver solver : solvers)
-                    {
-                        printNextRunData(solver.getClass(), numVertices);
-
-                        solver.updateGraph(currentGraph);
-                        solver.setMaxColors(maxColors);
-                        solver.assignPrintWriter(run_log);
-                        solver.runSolver();
-
-                        // <editor-fold defaultstate="collapsed" desc="Print graph after solver run if desired">
-    //                System.out.println("\n=== Graph Print After Current Solver Run: ===");
-    //                currentGraph.printGraph();
-                        // </editor-fold>
-
-//                        results_log.format("Instance Decisions Made: %d%n", solver.getDecisionsMade());
-//                        results_log.format("Instance valid coloring: %b%n", solver.isSatisfiesConstraint());
-
-                        calc.calculateInstanceMetrics(solver);
-                        
-                        // clear results values stored in the solver after each run
-                        solver.resetRunMetrics();
-                    }
-
-                    // increase class variables to set up for next graph
-                    numVertices += vertexGrowthSize;
+                    String[] output = iteration.get();
+                    System.out.print(output[0]);
+                    results_log.print(output[1]);
+                    run_log.print(output[2]);
                 }
-
-                // set up for next run suite iteration
-                numVertices = initialNumVertices;
+            } finally
+            {
+                // every iteration is done unless one failed, then the others
+                // are interrupted so the pool's threads can not keep the JVM up
+                suitePool.shutdownNow();
             }
 
             calc.printRunResults();
             calc.clearClassVariables();
 
             calc.closeWriter(); 
+            if (portfolio != null)
+            {
+                portfolio.shutdown();
+            }
             results_log.close();
             run_log.close();
             
@@ -151,6 +184,136 @@ public class Driver
         }
     }
 
+    /**
+     * One run suite iteration: generate each graph and run every solver on it.
+     * Iterations only share the ResultCalculator, so several can run at once.
+     * Console and log output is buffered and returned so the caller can write
+     * it out in iteration order.
+     * @param iteration : the run suite iteration number
+     * @param calc : result calculator for the run suite
+     * @param portfolio : runner to race the solvers with, null unless portfolioMode
+     * @return the console, results log and runs log output of the iteration
+     */
+    private static String[] runSuiteIteration(int iteration, ResultCalculator calc, PortfolioRunner portfolio) 
+            throws InstantiationException, IllegalAccessException, InterruptedException, IOException
+    {
+        StringWriter consoleBuffer = new StringWriter();
+        StringWriter resultsBuffer = new StringWriter();
+        StringWriter runsBuffer = new StringWriter();
+        PrintWriter console = new PrintWriter(consoleBuffer);
+        PrintWriter resultsLog = new PrintWriter(resultsBuffer);
+        PrintWriter runLog = new PrintWriter(runsBuffer);
+        
+        // solvers keep state between calls so every iteration gets its own
+        ArrayList<ConstraintSolver> solvers = instantiateSolvers();
+        int numVertices = initialNumVertices;
+        
+//        resultsLog.format("%n== Run suite iteration: %d ==%n", iteration);
+        console.println("\n= Run suite iteration: " + iteration + " =");
+
+        // while there are more graphs to generate
+        for (int i = 0; i < numberOfGraphs; i++)
+        {
+//            resultsLog.format("%n= Graph iteration: %d =%n", i);
+
+            Graph currentGraph = nextGraph(numVertices, iteration, i, runLog);
+            if (portfolioMode)
+            {
+                runPortfolio(portfolio, currentGraph, currentGraph.getGraphSize(), calc, console, resultsLog, runLog);
+                numVertices += vertexGrowthSize;
+                continue;
+            }
+            for (ConstraintSolver solver : solvers)
+            {
+                printNextRunData(console, resultsLog, solver.getClass(), currentGraph.getGraphSize());
+
+                solver.updateGraph(currentGraph);
+                solver.setMaxColors(maxColors);
+                solver.assignPrintWriter(runLog);
+                SolveResult result = solver.solve(timeLimitMillis, decisionBudget);
+                resultsLog.format("Status: %s after %.3f ms%n", result.getStatus(), result.getElapsedNanos() / 1e6);
+
+                // <editor-fold defaultstate="collapsed" desc="Print graph after solver run if desired">
+//                System.out.println("\n=== Graph Print After Current Solver Run: ===");
+//                currentGraph.printGraph();
+                // </editor-fold>
+
+//                resultsLog.format("Instance Decisions Made: %d%n", solver.getDecisionsMade());
+//                resultsLog.format("Instance valid coloring: %b%n", solver.isSatisfiesConstraint());
+
+                console.println("INSTANCE valid coloring: " + calc.calculateInstanceMetrics(solver));
+
+                // clear results values stored in the solver after each run
+                solver.resetRunMetrics();
+            }
+
+            // increase class variables to set up for next graph
+            numVertices += vertexGrowthSize;
+        }
+        
+        console.flush();
+        resultsLog.flush();
+        runLog.flush();
+        return new String[]{consoleBuffer.toString(), resultsBuffer.toString(), runsBuffer.toString()};
+    }
+
+    /**
+     * Race all solvers on one graph and record only the first one to find a
+     * valid coloring
+     * @param portfolio : runner holding the solver threads
+     * @param currentGraph : the graph to color
+     * @param size : number of vertices in currentGraph
+     * @param calc : result calculator for the run suite
+     * @param console : buffer for console output
+     * @param resultsLog : writer for the results log
+     * @param runLog : writer for the runs log
+     */
+    private static void runPortfolio(PortfolioRunner portfolio, Graph currentGraph, int size, ResultCalculator calc,
+            PrintWriter console, PrintWriter resultsLog, PrintWriter runLog) throws InterruptedException
+    {
+        ConstraintSolver winner = portfolio.solve(currentGraph, maxColors, runLog);
+        double millis = portfolio.getTimeToFirstColoring() / 1e6;
+        if (winner == null)
+        {
+            resultsLog.format("%nPortfolio found no valid coloring for graph size %d after %.3f ms%n", size, millis);
+            console.format("%nPortfolio found no valid coloring for graph size %d%n", size);
+            return;
+        }
+        printNextRunData(console, resultsLog, winner.getClass(), size);
+        resultsLog.format("Time to first valid coloring: %.3f ms%n", millis);
+        console.format("Time to first valid coloring: %.3f ms%n", millis);
+        console.println("INSTANCE valid coloring: " + calc.calculateInstanceMetrics(winner));
+    }
+    
+    /**
+     * Generate the next graph, or replay it from instanceDirectory or
+     * dimacsFile when set
+     * @param numVertices : the graph size
+     * @param iteration : the run suite iteration
+     * @param graphIndex : which graph of the iteration this is
+     * @param runLog : writer for the runs log
+     * @return the graph to run the solvers on
+     */
+    private static Graph nextGraph(int numVertices, int iteration, int graphIndex, PrintWriter runLog) throws IOException
+    {
+        if (!dimacsFile.isEmpty())
+        {
+            return DimacsFormat.read(new File(dimacsFile), runLog);
+        }
+        if (instanceDirectory.isEmpty())
+        {
+            Graph_Generator generator = new Graph_Generator(numVertices, runLog);
+            // passing the seed to Graph_Generator reproduces this graph exactly
+            runLog.format("Generating graph of size %d with seed %d%n", numVertices, generator.getSeed());
+            return generator.generateGraph();
+        }
+        File directory = new File(instanceDirectory);
+        directory.mkdirs();
+        File file = new File(directory, String.format("graph_%d_%d_%d.gcol", numVertices, iteration, graphIndex));
+        CompactGraph graph = file.exists() 
+                ? GraphInstanceFile.read(file) : new Graph_Generator(numVertices, runLog).generateInstance(file);
+        return graph.toGraph(runLog);
+    }
     
     private static ArrayList<ConstraintSolver> instantiateSolvers() throws InstantiationException, IllegalAccessException
     {
@@ -182,18 +345,20 @@ public class Driver
     /**
      * Shows which constraint solver is about to be run with associated data
      *
+     * @param console : where console output goes
+     * @param resultsLog : the results log to write to
      * @param currentSolver
      * @param size
      */
-    public static void printNextRunData(Class currentSolver, int size)
+    public static void printNextRunData(PrintWriter console, PrintWriter resultsLog, Class currentSolver, int size)
     {
-        results_log.println("\nRunning next solver ");
-        results_log.format("Current algorithm: %s%n", currentSolver.getSimpleName());
-        results_log.format("Graph size: %d%n", size);
+        resultsLog.println("\nRunning next solver ");
+        resultsLog.format("Current algorithm: %s%n", currentSolver.getSimpleName());
+        resultsLog.format("Graph size: %d%n", size);
         
-        System.out.println("\nRunning next solver ");
-        System.out.format("Current algorithm: %s%n", currentSolver.getSimpleName());
-        System.out.format("Graph size: %d%n", size);
+        console.println("\nRunning next solver ");
+        console.format("Current algorithm: %s%n", currentSolver.getSimpleName());
+        console.format("Graph size: %d%n", size);
     }
     // </editor-fold>
 }
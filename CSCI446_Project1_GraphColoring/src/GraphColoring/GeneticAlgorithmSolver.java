@@ -1,20 +1,35 @@
 package GraphColoring;
 
-import com.rits.cloning.Cloner;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
- * @version 09/08/16
+ * Graph coloring using a genetic algorithm. Every individual is a chromosome
+ * of one color per vertex, all stored back to back in a single int array and
+ * evaluated against the shared CSR adjacency of the graph being solved.
+ * Selection, crossover and mutation write into preallocated buffers, so a
+ * generation allocates nothing.
+ *
+ * In island mode several populations evolve on separate threads and every
+ * few generations each one sends copies of its best individuals to the next
+ * island in a ring, replacing that island's least fit individuals.
+ *
+ * @version 10/18/26
  */
 public class GeneticAlgorithmSolver extends ConstraintSolver
 {
-    
+
     /**
      * Tunable parameters
-     * In order to be dynamically set, some instantiations are found in the 
-     * update graph method
      */
     private final double childMutationRate = 0.20;
     private final double allMutationRate = 0.15;
@@ -24,659 +39,638 @@ public class GeneticAlgorithmSolver extends ConstraintSolver
     private final int populationSize = 30;
     private final int parentSetSize = populationSize / 2;
     private final int childSetSize = populationSize - parentSetSize;
-    
+    private final int maxGenerations = 10000; // use a number in the range of 10^4 officially
+    // number of populations evolved on their own threads, 1 runs a single
+    // population on the calling thread
+    private final int numIslands;
+    // generations each island runs between migrations
+    private final int migrationInterval = 50;
+    // individuals each island sends to the next island per migration
+    private final int numMigrants = 2;
+
+    public GeneticAlgorithmSolver()
+    {
+        this(1);
+    }
+
     /**
-     * Other class properties
+     * @param numIslands : populations to evolve on their own threads, 1 for
+     * a single population on the calling thread
      */
-    // the population of graphs
-    private final ArrayList<Graph> population = new ArrayList<>(populationSize);
-    private ArrayList<Graph> parentSet = new ArrayList<>(parentSetSize);
-    private ArrayList<Graph> childSet = new ArrayList<>(childSetSize);
-    private Graph bestGraph;
-    
-    public GeneticAlgorithmSolver()
+    public GeneticAlgorithmSolver(int numIslands)
     {
+        if (numIslands < 1)
+        {
+            throw new IllegalArgumentException("At least one island is needed, " + numIslands + " requested.");
+        }
+        this.numIslands = numIslands;
         maxColors = 4;
     }
-    
-    // used for displaying run data values
+
+    // generations between progress events in the trace log
     private final int loopIterationPrintMod = 1000;
-    
+
     @Override
-    public void runSolver() 
+    public void runSolver()
     {
         runs.println("Tunable parameter settings: ");
-        runs.format(" - Population Size: %d%n - Parent Size: %d%n - Child Size: %d%n - Mutation Rate: %f%n - Penalty Size: %d%n - Tournament Size: %d%n", 
+        runs.format(" - Population Size: %d%n - Parent Size: %d%n - Child Size: %d%n - Mutation Rate: %f%n - Penalty Size: %d%n - Tournament Size: %d%n",
                 populationSize, parentSetSize, childSetSize, allMutationRate, penaltySize, tournamentSize);
-        
-        initializePopulation();
-        setAllFitnesses();
-        
-        // loop until constraint is meet
-        boolean satisfied = false;
-        int loopIteration = 0;
-        while (!satisfied && loopIteration < 10000) // use a number in the range of 10^4 officially
-        {
-            if (loopIteration % loopIterationPrintMod == 0)
-                runs.format("%n== Current Generation: %d ==%n", loopIteration);
-            // reset parent and child subsets
-            parentSet.clear();
-            childSet.clear();
-            
-            // assign parent set though tournament selection
-            parentSet = selectParentSet(population);                            addDecision();
-            
-            // <editor-fold defaultstate="collapsed" desc="Print population and parent population fitnesses">
-//            if (loopIteration % loopIterationPrintMod == 0)
-//            {
-//                runs.println("Current population fitnesses and chromosomes: ");
-//                printPopulationValues(population);
-//                runs.println("Current parent set fitnesses and chromosomes: ");
-//                printPopulationValues(parentSet);
-//            }
-            // </editor-fold>
-            
-            // assign children set through crossover
-            childSet = selectChildrenSet(parentSet);                            addDecision();
-            
-            // <editor-fold defaultstate="collapsed" desc="Print population and children population fitnesses">
-//            if (loopIteration % loopIterationPrintMod == 0)
-//            {
-//                runs.println("Current children set fitnesses and chromosomes: ");
-//                printPopulationValues(childSet);
-//            }
-            // </editor-fold>
-            
-            // mutate some of the children
-            // <editor-fold defaultstate="collapsed" desc="Print children chromosomes before mutation">
-//            if (loopIteration % loopIterationPrintMod == 0)
-//            {
-//                runs.println("Children chromosomes before mutation: " );
-//                for (Graph child : childSet)
-//                {
-//                    runs.format("%s, %n", child.getChromosomeArray());
-//                }
-//                runs.println();
-//            }
-            // </editor-fold>
-            mutateChildren(childSet);
-            // <editor-fold defaultstate="collapsed" desc="Print children chromosomes after mutation">
-//            if (loopIteration % loopIterationPrintMod == 0)
-//            {
-//                runs.println("Children chromosomes after mutation: " );
-//                for (Graph child : childSet)
-//                {
-//                    runs.format("%s, %n", child.getChromosomeArray());
-//                }
-//                runs.println();
-//            }
-            // </editor-fold>
-            
-            // generate new population from children and parents
-            evolve();                                                           addDecision();
-                    
-            // apply penalty function to least fit population individuals
-            penalize();
-            
-            // apply a second mutation strategy to all individuals
-            mutateAll();
-            
-            // <editor-fold defaultstate="collapsed" desc="Print evolved and repaired population">
-//            runs.println("Evolved and repaired population fitnesses and chromosomes: ");
-//            printPopulationValues(population);
-            // </editor-fold>
-            
-            // set bestGraph and determine loop condition. Exit if satisfied
-            satisfied = determineStatus();                                      addDecision();
-            
-            // <editor-fold defaultstate="collapsed" desc="Print best graph state for current generation">
-//            if (loopIteration % loopIterationPrintMod == 0)
-//            {
-//                runs.format("Satisfied value: %b%n", satisfied);
-//                runs.println("\nBest Graph Value: " + graph.getFitness() + " out of " + graph.getGraphSize());
-//                //bestGraph.printGraph();
-//            }
-            // </editor-fold>
-            
-            loopIteration++;
-        }
-        
+        runs.format(" - Islands: %d%n", numIslands);
+
+        Population population = numIslands > 1 ? evolveIslands() : evolve();
+        boolean satisfied = population.isSatisfied();
+
+        // the best individual becomes the solver's coloring
+        population.copyIndividual(population.getBestIndex(), compactGraph.colors);
+        compactGraph.writeColorsTo(graph);
+
         // <editor-fold defaultstate="collapsed" desc="Print final graph state">
         runs.format("%n= Final Generation =%n");
         runs.format("Satisfied value: %b%n", satisfied);
-        runs.println("Current population fitnesses and chromosomes: ");
-        printPopulationValues(population);
-        runs.print("The Graph Value: " + graph.getFitness() + " out of " + graph.getGraphSize());
-//        bestGraph.printGraph();
+        if (TraceLog.isEnabled(TraceLog.Level.DEBUG))
+        {
+            runs.println("Current population fitnesses and chromosomes: ");
+            population.printPopulationValues();
+        }
+        runs.print("The Graph Value: " + compactGraph.calculateFitness() + " out of " + compactGraph.getNumVertices());
         // </editor-fold>
     }
-    
-    /**
-     * For each individual, pick n% of nodes and change their color to a random 
-     * color if the chromosome's fitness is not already a valid coloring
-     * @param children 
-     */
-    private void mutateChildren(ArrayList<Graph> children)
+
+    @Override
+    protected boolean usesHelperThreads()
     {
-        Random rand = new Random();
-        int numMutations = (int) Math.ceil(children.size() * childMutationRate);
-        
-        // for each child individual 
-        for (Graph child : children)
-        {
-            // for n mutations
-            for (int i = 0; i < numMutations; i++)
-            {
-                // get a random chromosome from the graph
-                int randIndex = rand.nextInt(child.theGraph.size());
-                Vertex currentVertex = child.theGraph.get(randIndex);
-                
-                // change its color to a random color if it isn't valid
-                if (!currentVertex.getFitness())
-                {
-                    int newColor = currentVertex.color;
-                    while (newColor == currentVertex.color)
-                    {
-                        newColor = rand.nextInt(maxColors);                     
-                    }
-                    currentVertex.color = newColor;                             addDecision();
-                }
-            }
-        }
+        return numIslands > 1;
     }
-    
+
     /**
-     * Apply tournament selection until the parent set is full
-     * @returns a graph collection of parent set
+     * Evolve a single population until it is satisfied or the generation
+     * cap is reached
+     * @return the population
      */
-    private ArrayList<Graph> selectParentSet(ArrayList<Graph> input)
+    private Population evolve()
     {
-        Random rand = new Random();
-        Graph[] tournamentPlayers = new Graph[tournamentSize];
-        ArrayList<Graph> returnedSet = new ArrayList<>();
-        
-        // loop until parent set is full
-        while (returnedSet.size() < parentSetSize)
-        {
-            // assign [tournament_size] players at random
-            for (int i = 0; i < tournamentSize; i++)
-            {
-                int individualIndex = rand.nextInt(parentSetSize);
-                tournamentPlayers[i] = population.get(individualIndex);         addDecision();
-            }
-            // return the winner of the tournament
-            Graph winner = tournamentSelection(tournamentPlayers);
-            // and add to the subset to return
-            returnedSet.add(winner);                                            addDecision();
+        Population population = new Population(compactGraph, new Random());
+        population.initialize();
+
+        // loop until constraint is meet
+        boolean satisfied = population.isSatisfied();
+        int loopIteration = 0;
+        while (!satisfied && loopIteration < maxGenerations && !outOfBudget(population.getDecisions()))
+        {
+            satisfied = population.evolveGeneration();
+            // every generation is logged, every [loop_iteration_print_mod]th also as progress
+            TraceLog.Level level = loopIteration % loopIterationPrintMod == 0 ? TraceLog.Level.INFO : TraceLog.Level.DEBUG;
+            TraceLog.event(level, TraceLog.Event.GENERATION, loopIteration, population.getBestFitness());
+            loopIteration++;
         }
-        
-        return returnedSet;
+        decisionsMade = population.getDecisions();
+        return population;
     }
-    
+
     /**
-     * Apply crossover by picking two individuals from the parent population 
-     * which generate two new children from half of the chromosomes from each parent 
-     * @param input : the parent subset of the population
-     * @return returnedSet : a filled list of children individuals
+     * Evolve [num_islands] populations on their own threads. The islands meet
+     * at a barrier every [migration_interval] generations, where the last one
+     * to arrive migrates individuals around the ring and decides whether to
+     * stop. Only that barrier action touches more than one island.
+     * @return the island holding the most fit individual
      */
-    private ArrayList<Graph> selectChildrenSet(ArrayList<Graph> input)
+    private Population evolveIslands()
     {
-        Random rand = new Random();
-        Graph[] parents = new Graph[2];
-        ArrayList<Graph> returnedSet = new ArrayList<>();
-        int chromosomeLength = graph.getGraphSize();
-        
-        // assign new graph instances to each child 
-        for (int i = 0; i < childSetSize; i++)
-        {
-            returnedSet.add(deepGraphCopy());
+        Random seeds = new Random();
+        Population[] islands = new Population[numIslands];
+        for (int i = 0; i < numIslands; i++)
+        {
+            islands[i] = new Population(compactGraph, new Random(seeds.nextLong()));
+            islands[i].initialize();
         }
-        
-        // loop through child set and update colors
-        for (int i = 0; i < returnedSet.size(); i++)
-        {
-            parents[0] = input.get(rand.nextInt(input.size()));                 addDecision();
-            parents[1] = input.get(rand.nextInt(input.size()));                 addDecision();
-            
-            ArrayList<Integer> chromosome1 = new ArrayList<>();
-            ArrayList<Integer> chromosome2 = new ArrayList<>();
-            
-            // Enumerate over the length of a chromosome array
-            for (int j = 0; j < chromosomeLength; j++)
+        int n = compactGraph.getNumVertices();
+        int[] migrants = new int[numIslands * numMigrants * n];
+        // generation count and stop flag are only written by the barrier
+        // action, the barrier publishes them to every island
+        int[] generation = {0};
+        boolean[] stop = {isSatisfied(islands)};
+        // lets the other islands stop early once one finds a valid coloring
+        AtomicBoolean found = new AtomicBoolean(false);
+        CyclicBarrier barrier = new CyclicBarrier(numIslands, () ->
+        {
+            generation[0] += migrationInterval;
+            if (isSatisfied(islands) || generation[0] >= maxGenerations || outOfBudget(totalDecisions(islands)))
             {
-                if (j < chromosomeLength / 2)
-                {
-                    int newValue = (parents[0].getChromosomeArray().get(j) + 1) % maxColors;
-                    chromosome1.add(newValue);                                  addDecision();
-                    chromosome2.add(parents[1].getChromosomeArray().get(j));    addDecision();
-                }
-                else
-                {
-                    int newValue = (parents[1].getChromosomeArray().get(j) + 1) % maxColors;
-                    chromosome1.add(newValue);                                  addDecision();
-                    chromosome2.add(parents[0].getChromosomeArray().get(j));    addDecision();
-                }
+                stop[0] = true;
+                return;
             }
-            
-            // <editor-fold defaultstate="collapsed" desc="Print Crossover Process">
-//            System.out.println("TESTING CHILDREN");
-//            System.out.format("parent1 array: %s%n", parents[0].getChromosomeArray().toString());
-//            System.out.format("parent2 array: %s%n", parents[1].getChromosomeArray().toString());
-//            System.out.format("chromosome1 array: %s%n", chromosome1.toString());
-//            System.out.format("chromosome2 array: %s%n", chromosome2.toString());
-            // </editor-fold>
-            
-            // add the chromosomes to the returned children set
-            updateChromosomes(returnedSet, chromosome1, i);
-            i++;
-            if (i >= returnedSet.size())
+            if (generation[0] % loopIterationPrintMod == 0)
+                TraceLog.event(TraceLog.Level.INFO, TraceLog.Event.GENERATION, generation[0], best(islands).getBestFitness());
+            // collect every island's emigrants before any island is changed
+            for (int i = 0; i < numIslands; i++)
             {
-                break;
+                islands[i].copyBest(numMigrants, migrants, i * numMigrants * n);
             }
-            updateChromosomes(returnedSet, chromosome2, i);
-        }
-        
-        return returnedSet;
-    }
-    
-    /**
-     * @param returnedSet : The subpopulation of children individuals
-     * @param newChromosome : the int array to set each vertex's color (in order) to
-     * @param index : the current vertex index to target in the returnedSet
-     */
-    private void updateChromosomes(ArrayList<Graph> returnedSet, ArrayList<Integer> newChromosome, int index)
-    {
-        Graph currentGraph = returnedSet.get(index);
-        // for each vertex in the current graph
-        for (int i = 0; i < newChromosome.size(); i++)
-        {
-            Vertex currentVertex = currentGraph.theGraph.get(i);
-            currentVertex.color = newChromosome.get(i);                         addDecision();
-        }
-    }
-    
-    /**
-     * Regenerates the population list as a combination of the child and 
-     * parent subsets
-     */
-    private void evolve()
-    {
-        if (childSet.size() + parentSet.size() != population.size())
+            for (int i = 0; i < numIslands; i++)
+            {
+                islands[(i + 1) % numIslands].replaceWorst(numMigrants, migrants, i * numMigrants * n);
+            }
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(numIslands);
+        try
         {
-            throw new RuntimeException("Union of child set and parent set does not add up to population size.");
-        }
-        population.clear();
-        population.addAll(childSet);
-        population.addAll(parentSet);
-    }
-    
-    private void mutateAll()
-    {
-        Random rand = new Random();
-        int numMutations = (int) Math.ceil(graph.getGraphSize() * allMutationRate);
-        
-        // for each individual
-        for (Graph individual : population)
-        {
-            // for n repairs
-            for (int i = 0; i < numMutations; i++)
+            List<Future<?>> running = new ArrayList<>(numIslands);
+            for (Population island : islands)
             {
-                // get a random chromosome from the graph
-                int randIndex = rand.nextInt(individual.theGraph.size());
-                Vertex currentVertex = individual.theGraph.get(randIndex);
-                
-                // change its color to the most fit color if it isn't valid
-                if (!currentVertex.getFitness())
-                {
-                    int newColor = currentVertex.mostFitColor(maxColors);
-                    while (newColor == currentVertex.color)
-                    {
-                        newColor = rand.nextInt(maxColors);                     
-                    }
-                    currentVertex.color = newColor;                             addDecision();
-                }
-                // if it is valid, iterate until a non-valid node is found
-                else
+                running.add(executor.submit(() ->
                 {
-                    Iterator vertexItr = individual.theGraph.values().iterator();
-                    while (vertexItr.hasNext())
+                    try
                     {
-                        Vertex nextVert = (Vertex) vertexItr.next();
-                        if (!nextVert.getFitness())
+                        while (!stop[0])
                         {
-                            int newColor = currentVertex.mostFitColor(maxColors);
-                            while (newColor == currentVertex.color)
+                            for (int g = 0; g < migrationInterval && !found.get() && !isCancelled(); g++)
                             {
-                                newColor = rand.nextInt(maxColors);
+                                if (island.evolveGeneration())
+                                {
+                                    found.set(true);
+                                }
                             }
-                            currentVertex.color = newColor;                     addDecision();
+                            barrier.await();
                         }
-                        break;
+                    } catch (InterruptedException | BrokenBarrierException e)
+                    {
+                        throw new RuntimeException("Island evolution was interrupted.", e);
+                    } catch (RuntimeException e)
+                    {
+                        // release the other islands waiting at the barrier
+                        barrier.reset();
+                        throw e;
                     }
-                }
-            }
-        }
-    }
-    
-    /**
-     * remove [penalty_size] individuals from the population
-     */
-    private void penalize()
-    {
-        Random rand = new Random();
-        
-        for (int i = 0; i < penaltySize; i++)
-        {
-            // find fitness of worst individual
-            int lowestFitness = graph.getGraphSize();
-            Graph worstIndividual = null;
-
-            for (Graph individual : population)
-            {
-                if (individual.getFitness() < lowestFitness)
-                {
-                    lowestFitness = individual.getFitness();
-                    worstIndividual = individual;                
-                }
+                    return null;
+                }));
             }
-
-            if (worstIndividual == null)
-            {
-                throw new RuntimeException("The worst individual was never set in penalize function.");
-            }
-
-            // remove worst individual
-            population.remove(worstIndividual);                                 addDecision();
-
-            // replace with new individual
-            Graph newIndividual = deepGraphCopy();
-            // randomize color values in new individual
-            for (Vertex neighbor : newIndividual.theGraph.values())
+            for (Future<?> island : running)
             {
-                int randColor = rand.nextInt(maxColors);
-                neighbor.color = randColor;                                     
+                island.get();
             }
-            population.add(newIndividual);                                      
+        } catch (InterruptedException | ExecutionException e)
+        {
+            throw new RuntimeException("Island mode failed.", e);
+        } finally
+        {
+            executor.shutdownNow();
         }
+
+        decisionsMade = totalDecisions(islands);
+        return best(islands);
     }
-    
+
     /**
-     * Choose the most fit graph out of a list of combatants 
-     * @param players : an array of [tournament_size] graphs
-     * @return the most fit graph
+     * @return the island holding the most fit individual
      */
-    private Graph tournamentSelection(Graph[] players)
+    private Population best(Population[] islands)
     {
-        int bestFitness = 0;
-        Graph winner = null;
-        
-        for (Graph player : players)
+        Population best = islands[0];
+        for (Population island : islands)
         {
-            int currentFitness = player.calculateFitness();
-            if (currentFitness >= bestFitness)
+            if (island.getBestFitness() > best.getBestFitness())
             {
-                bestFitness = currentFitness;
-                winner = player;
+                best = island;
             }
         }
-        if (winner == null)
-        {
-            throw new RuntimeException("A winner was never set during tournament selection");
-        }
-        
-        return winner;
+        return best;
     }
-    
+
     /**
-     * Calculates and assigns the fitness for all individuals in the population
+     * @return the decisions made by all islands so far
      */
-    private void setAllFitnesses()
+    private long totalDecisions(Population[] islands)
     {
-        for (Graph individual : population)
+        long decisions = 0;
+        for (Population island : islands)
         {
-            individual.calculateFitness();                                      addDecision();
+            decisions += island.getDecisions();
         }
+        return decisions;
     }
-    
+
     /**
-     * Assign the input graph to each index in the population array, then
-     * randomize the colors of all nodes in all graphs in the population array
+     * @return true if any island holds a valid coloring
      */
-    private void initializePopulation()
+    private boolean isSatisfied(Population[] islands)
     {
-        population.clear();
-        Random rand = new Random();
-        for (int i = 0; i < populationSize; i++)
+        for (Population island : islands)
         {
-            Graph newGraph = deepGraphCopy();
-            
-            for (Vertex neighbor : newGraph.theGraph.values())
+            if (island.isSatisfied())
             {
-                int randColor = rand.nextInt(maxColors);
-                neighbor.color = randColor;                                     
+                return true;
             }
-            
-            population.add(newGraph);                                           
         }
+        return false;
     }
-    
+
     /**
-     * finds the most fit individual in the population
+     * A population of chromosomes over one CSR graph. The genes of individual
+     * i are genes[i * n] up to genes[(i + 1) * n], gene v being vertex v's
+     * color. Each generation is written into nextGenes and the two arrays
+     * are swapped.
      */
-    private Graph findMostFit()
+    class Population
     {
-        int fitness = 0;
-        Graph mostFitGraph = null;
-        
-        for (Graph individual : population)
+        private final int[] offsets;
+        private final int[] neighbors;
+        private final int n;
+        private final Random rand;
+
+        private int[] genes;
+        private int[] nextGenes;
+        // number of vertices not in conflict for each individual
+        private final int[] fitness;
+        // population index of each parent picked by tournament selection
+        private final int[] parents = new int[parentSetSize];
+        // population indices ordered from most to least fit, used for migration
+        private final int[] ranking = new int[populationSize];
+        private int bestIndex;
+        private long decisions = 0;
+
+        /**
+         * @param graph : the CSR graph shared by every individual
+         * @param rand : random source for this population
+         */
+        Population(CompactGraph graph, Random rand)
         {
-            if (individual.getFitness() > fitness)
+            offsets = graph.offsets;
+            neighbors = graph.neighbors;
+            n = graph.getNumVertices();
+            this.rand = rand;
+            genes = new int[populationSize * n];
+            nextGenes = new int[populationSize * n];
+            fitness = new int[populationSize];
+        }
+
+        /**
+         * Randomize the colors of all nodes in every individual
+         */
+        void initialize()
+        {
+            for (int i = 0; i < genes.length; i++)
             {
-                mostFitGraph = individual;
+                genes[i] = rand.nextInt(maxColors);
             }
+            setAllFitnesses();
         }
-        
-        if (mostFitGraph == null)
+
+        /**
+         * Run one generation: tournament selection, crossover, child mutation,
+         * penalty of the least fit and mutation of everyone
+         * @return true if the best individual is a valid coloring
+         */
+        boolean evolveGeneration()
         {
-            throw new RuntimeException("Nothing was assigned to mostFitGraph in findMostFit() method.");
+            selectParentSet();
+            selectChildrenSet();
+            mutateChildren();
+
+            // generate new population from children and parents
+            int[] swap = genes;
+            genes = nextGenes;
+            nextGenes = swap;                                                   decisions++;
+            setAllFitnesses();
+
+            penalize();
+            mutateAll();
+            setAllFitnesses();                                                  decisions++;
+            return isSatisfied();
         }
-        
-        return mostFitGraph;
-    }
-    
-    private boolean determineStatus()
-    {
-        // Assign graph to the most fit graph in the population
-        bestGraph = tempFindMostFit();
-        graph = bestGraph;
-        super.graph = bestGraph;
-        // If all colors are valid, exit the loop
-        return tempSatisfies();
-    }
-    
-    private Graph tempFindMostFit()
-    {
-        Graph mostFitGraph = null;
-        int mostFitValue = 0;
-                
-        for (Graph member : population)
-        {
-            int currentGraphFitness = 0;
-            
-            for (Vertex chromosome : member.theGraph.values())
+
+        /**
+         * Apply tournament selection until the parent set is full. Parents
+         * are copied to the end of the next generation
+         */
+        private void selectParentSet()
+        {
+            for (int p = 0; p < parentSetSize; p++)
             {
-                int currentColor = chromosome.color;
-                boolean fitChromosome = true;
-                
-                for (Vertex neighbor : chromosome.edges.values())
+                // the winner of [tournament_size] players picked at random
+                int winner = -1;
+                for (int i = 0; i < tournamentSize; i++)
                 {
-                    if (currentColor == neighbor.color)
+                    int player = rand.nextInt(populationSize);                  decisions++;
+                    if (winner == -1 || fitness[player] >= fitness[winner])
                     {
-                        fitChromosome = false;
+                        winner = player;
                     }
                 }
-                if (fitChromosome)
+                parents[p] = winner;
+                System.arraycopy(genes, winner * n, nextGenes, (childSetSize + p) * n, n); decisions++;
+            }
+        }
+
+        /**
+         * Apply crossover by picking two individuals from the parent set
+         * which generate two new children from half of the chromosomes from
+         * each parent. Children fill the start of the next generation
+         */
+        private void selectChildrenSet()
+        {
+            int half = n / 2;
+            for (int c = 0; c < childSetSize; c += 2)
+            {
+                int parent1 = parents[rand.nextInt(parentSetSize)] * n;       decisions++;
+                int parent2 = parents[rand.nextInt(parentSetSize)] * n;       decisions++;
+                int child1 = c * n;
+                int child2 = (c + 1) * n;
+                boolean hasSecondChild = c + 1 < childSetSize;
+
+                for (int j = 0; j < n; j++)
                 {
-                    currentGraphFitness++;
+                    int first = j < half ? parent1 : parent2;
+                    int second = j < half ? parent2 : parent1;
+                    nextGenes[child1 + j] = (genes[first + j] + 1) % maxColors;
+                    if (hasSecondChild)
+                    {
+                        nextGenes[child2 + j] = genes[second + j];
+                    }
                 }
+                decisions += hasSecondChild ? 2 * n : n;
             }
-            
-            if (currentGraphFitness > mostFitValue)
+        }
+
+        /**
+         * For each child, pick n% of nodes and change their color to a
+         * random color if the node is in conflict
+         */
+        private void mutateChildren()
+        {
+            int numMutations = (int) Math.ceil(childSetSize * childMutationRate);
+            for (int c = 0; c < childSetSize; c++)
             {
-                mostFitValue = currentGraphFitness;
-                mostFitGraph = member;
+                int start = c * n;
+                for (int i = 0; i < numMutations; i++)
+                {
+                    int vertex = rand.nextInt(n);
+                    if (inConflict(nextGenes, start, vertex))
+                    {
+                        nextGenes[start + vertex] = randomOtherColor(nextGenes[start + vertex]); decisions++;
+                    }
+                }
             }
         }
-        
-        return mostFitGraph;
-    }
-    
-    private boolean tempSatisfies()
-    {
-         boolean satisfied = true;
-        // for each vertex in the graph...
-        for (Vertex vertex : graph.theGraph.values()) 
-        {
-            int currentColor = vertex.color;
-            
-            // for each vertex the current vertex is connected to...
-            for (Vertex neighbor : vertex.edges.values())
+
+        /**
+         * replace the [penalty_size] least fit individuals with random ones
+         */
+        private void penalize()
+        {
+            for (int p = 0; p < penaltySize; p++)
             {
-                if (currentColor == neighbor.color)
+                int worst = getWorstIndex();
+                int start = worst * n;
+                for (int v = 0; v < n; v++)
                 {
-                    satisfied = false;
-                    break;
+                    genes[start + v] = rand.nextInt(maxColors);
                 }
+                // a fresh individual can't be chosen as worst again this round
+                fitness[worst] = n;                                             decisions++;
             }
-            if (!satisfied)
+        }
+
+        /**
+         * For each individual, pick n% of nodes and give conflicted ones the
+         * color with the least conflicts (a random other color if that is
+         * the color it already has)
+         */
+        private void mutateAll()
+        {
+            int numMutations = (int) Math.ceil(n * allMutationRate);
+            for (int individual = 0; individual < populationSize; individual++)
             {
-                break;
+                int start = individual * n;
+                for (int i = 0; i < numMutations; i++)
+                {
+                    int vertex = rand.nextInt(n);
+                    if (inConflict(genes, start, vertex))
+                    {
+                        int newColor = mostFitColor(genes, start, vertex);
+                        if (newColor == genes[start + vertex])
+                        {
+                            newColor = randomOtherColor(newColor);
+                        }
+                        genes[start + vertex] = newColor;                       decisions++;
+                    }
+                }
             }
         }
-        return satisfied;
-    }
-    
-    /**
-     * creates new memory locations for each population individual Graph
-     */
-    private Graph deepGraphCopy()
-    {
-        Cloner cloner = new Cloner();
-        
-        Graph newGraphInMemory = cloner.deepClone(graph);
-        
-        return newGraphInMemory;
-    }
-    
-    @Override
-    public void updateGraph(Graph graph)
-    {
-        this.graph = graph;
-        this.theGraph = graph.theGraph;
-    }
-    
-    /**
-     * add +1 to decisions made for the current instance run
-     */
-    public void addDecision()
-    {
-        decisionsMade++;
-    }
-    
-    // <editor-fold defaultstate="collapsed" desc="Various print methods">
-    /**
-     * Output each population's size and fitness
-     * @param graphSet : the list of Graph items to get values on
-     */
-    public void printPopulationValues(ArrayList<Graph> graphSet)
-    {
-        int i = 0;
-        for (Graph individual : graphSet)
+
+        /**
+         * Calculates the fitness of every individual and remembers the best
+         */
+        private void setAllFitnesses()
         {
-            ArrayList<Integer> theArray = individual.getChromosomeArray();
-            runs.format("Individual %d's fitness: %d |", i, individual.getFitness());
-            runs.format(" chromosomes: %s%n", theArray.toString());
-            i++;
+            bestIndex = 0;
+            for (int individual = 0; individual < populationSize; individual++)
+            {
+                int start = individual * n;
+                int fit = 0;
+                for (int v = 0; v < n; v++)
+                {
+                    if (!inConflict(genes, start, v))
+                    {
+                        fit++;
+                    }
+                }
+                fitness[individual] = fit;
+                if (fit > fitness[bestIndex])
+                {
+                    bestIndex = individual;
+                }
+            }
         }
-    }
-    // </editor-fold>
-    
-    // <editor-fold defaultstate="collapsed" desc="All the methods needed for doing merge sort">
-    /**
-     * Takes an arraylist of graph and sorts them into a new arraylist in order
-     * of fitness from worst to best
-     * Uses merge sort.
-     * Merge sort implementation referenced from 
-     * http://www.java2novice.com/java-sorting-algorithms/merge-sort/
-     * and nearly every java algorithms book written
-     */
-    class MergeSort
-    {
-        private ArrayList<Graph> inputArray;
-        private Graph[] tempArray;
-        private int length;
-        
+
         /**
-         * @param input : The array of graphs to sort
-         * @return the graphs in sorted order from worst to best
+         * Copy the count most fit individuals one after another into out
+         * @param count : number of individuals to copy
+         * @param out : the destination array
+         * @param offset : index in out to start writing at
          */
-        private ArrayList<Graph> sort(ArrayList<Graph> input)
-        {
-            this.inputArray = input;
-            length = inputArray.size();
-            tempArray = new Graph[length];
-            doMergeSort(0, length - 1);
-            
-            return inputArray;
+        void copyBest(int count, int[] out, int offset)
+        {
+            rankByFitness();
+            for (int i = 0; i < count && i < populationSize; i++)
+            {
+                copyIndividual(ranking[i], out, offset + i * n);
+            }
         }
-        
-        private void doMergeSort(int lower, int higher)
+
+        /**
+         * Overwrite the count least fit individuals with chromosomes laid out
+         * one after another in in, then refresh the fitness values
+         * @param count : number of individuals to replace
+         * @param in : the source array
+         * @param offset : index in in to start reading at
+         */
+        void replaceWorst(int count, int[] in, int offset)
         {
-            if (lower < higher)
+            rankByFitness();
+            for (int i = 0; i < count && i < populationSize; i++)
             {
-                int middle = lower + (higher - lower) / 2;
-                doMergeSort(lower, middle);
-                doMergeSort(middle+1, higher);
-                mergeParts(lower, middle, higher);
+                System.arraycopy(in, offset + i * n, genes, ranking[populationSize - 1 - i] * n, n); decisions++;
             }
+            setAllFitnesses();
         }
-        
-        private void mergeParts(int lower, int middle, int higher)
+
+        /**
+         * Insertion sort of the population indices by fitness, best first
+         */
+        private void rankByFitness()
         {
-            for (int i = lower; i <= higher; i++)
+            for (int i = 0; i < populationSize; i++)
             {
-                tempArray[i] = inputArray.get(i);
+                int individual = i;
+                int j = i;
+                while (j > 0 && fitness[ranking[j - 1]] < fitness[individual])
+                {
+                    ranking[j] = ranking[j - 1];
+                    j--;
+                }
+                ranking[j] = individual;
             }
-            int i = lower;
-            int j = middle + 1;
-            int k = lower;
-            while (i <= middle && j <= higher)
+        }
+
+        /**
+         * @return true if vertex shares a color with any of its neighbors in
+         * the individual starting at start
+         */
+        private boolean inConflict(int[] chromosomes, int start, int vertex)
+        {
+            int color = chromosomes[start + vertex];
+            for (int i = offsets[vertex]; i < offsets[vertex + 1]; i++)
             {
-                if (getFitnessAtIndex(i, tempArray) <= getFitnessAtIndex(j, tempArray))
+                if (chromosomes[start + neighbors[i]] == color)
                 {
-                    inputArray.set(k, tempArray[i]);
-                    i++;
+                    return true;
                 }
-                else
+            }
+            return false;
+        }
+
+        /**
+         * @return the color used by the fewest neighbors of vertex
+         */
+        private int mostFitColor(int[] chromosomes, int start, int vertex)
+        {
+            int bestColor = chromosomes[start + vertex];
+            int fewestConflicts = Integer.MAX_VALUE;
+            for (int color = 0; color < maxColors; color++)
+            {
+                int conflicts = 0;
+                for (int i = offsets[vertex]; i < offsets[vertex + 1]; i++)
+                {
+                    if (chromosomes[start + neighbors[i]] == color)
+                    {
+                        conflicts++;
+                    }
+                }
+                if (conflicts < fewestConflicts)
                 {
-                    inputArray.set(k, tempArray[j]);
-                    j++;
+                    fewestConflicts = conflicts;
+                    bestColor = color;
                 }
-                k++;
             }
-            while (i <= middle)
+            return bestColor;
+        }
+
+        /**
+         * @return a random color that is not the given one
+         */
+        private int randomOtherColor(int color)
+        {
+            if (maxColors < 2)
+            {
+                return color;
+            }
+            int newColor = rand.nextInt(maxColors - 1);
+            return newColor >= color ? newColor + 1 : newColor;
+        }
+
+        // <editor-fold defaultstate="collapsed" desc="Basic Getters and Setters">
+        /**
+         * @return true if the best individual has no conflicts
+         */
+        boolean isSatisfied()
+        {
+            return fitness[bestIndex] == n;
+        }
+
+        /**
+         * @return the number of vertices not in conflict in the best individual
+         */
+        int getBestFitness()
+        {
+            return fitness[bestIndex];
+        }
+
+        /**
+         * @return the population index of the most fit individual
+         */
+        int getBestIndex()
+        {
+            return bestIndex;
+        }
+
+        /**
+         * @return the population index of the least fit individual
+         */
+        int getWorstIndex()
+        {
+            int worst = 0;
+            for (int individual = 1; individual < populationSize; individual++)
             {
-                inputArray.set(k, tempArray[i]);
-                k++;
-                i++;
+                if (fitness[individual] < fitness[worst])
+                {
+                    worst = individual;
+                }
             }
+            return worst;
         }
-        
-        private int getFitnessAtIndex(int index, Graph[] array)
+
+        /**
+         * @param individual : population index
+         * @param out : receives the individual's colors, length at least n
+         */
+        void copyIndividual(int individual, int[] out)
         {
-            Graph currentGraph = array[index];
-            return currentGraph.getFitness();
+            copyIndividual(individual, out, 0);
+        }
+
+        /**
+         * @param individual : population index
+         * @param out : receives the individual's colors
+         * @param offset : index in out to start writing at
+         */
+        void copyIndividual(int individual, int[] out, int offset)
+        {
+            System.arraycopy(genes, individual * n, out, offset, n);
+        }
+
+        /**
+         * @return the decisions made by this population so far
+         */
+        long getDecisions()
+        {
+            return decisions;
+        }
+        // </editor-fold>
+
+        /**
+         * Output each individual's fitness and chromosomes
+         */
+        void printPopulationValues()
+        {
+            int[] chromosome = new int[n];
+            for (int individual = 0; individual < populationSize; individual++)
+            {
+                copyIndividual(individual, chromosome);
+                runs.format("Individual %d's fitness: %d |", individual, fitness[individual]);
+                runs.format(" chromosomes: %s%n", Arrays.toString(chromosome));
+            }
         }
     }
-    // </editor-fold>
 }
@@ -2,26 +2,34 @@ package GraphColoring;
 
 import java.util.ArrayList;
 import java.io.PrintWriter;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
 
 // class Graph represents a graph object with attributes points and matrix 
 public class Graph 
 {
     public final Map<Integer, Vertex> theGraph;
-    private final int graphSize; 
+    private int graphSize; 
     // fitness is determined by how many color violations the current graph has
     // A fitness of 1 means no violations occur. Initial fitness 
     // is 0 
     private int fitness = 0;
     // The color of each vertex listen in the Map's key order
     private final ArrayList<Integer> chromosomeArray = new ArrayList<>();
+    // CSR copy of the adjacency, built the first time a solver asks for it
+    // and dropped whenever the graph is changed
+    private CompactGraph compactGraph;
+    // vertices given a new edge or added since the last takeChangedVertices(),
+    // the only places a valid coloring can have gained a conflict
+    private final Set<Integer> changedVertices = new HashSet<>();
     
     /**
      * results and runs PrintWriter
      */
-    protected static PrintWriter results;
-    protected static PrintWriter runs;
+    protected PrintWriter results;
+    protected PrintWriter runs;
     
     // constructor to initialize Graph class and its attributes
     public Graph(Map<Integer, Vertex> theGraph, PrintWriter run) 
@@ -32,6 +40,18 @@ public class Graph
         runs = run;
     }
     
+    /**
+     * constructor for a map view that was built from an existing CSR graph
+     * @param theGraph : the map view of compactGraph
+     * @param compactGraph : the CSR graph theGraph was built from
+     * @param run : writer used for text file output
+     */
+    public Graph(Map<Integer, Vertex> theGraph, CompactGraph compactGraph, PrintWriter run) 
+    {
+        this(theGraph, run);
+        this.compactGraph = compactGraph;
+    }
+    
     /**
      * Fitness is determined by how many color violations the current graph
      * is causing. A fitness of 1 means no violations occur. This method takes
@@ -52,6 +72,120 @@ public class Graph
         return fitness;
     }
     
+    // <editor-fold defaultstate="collapsed" desc="Changing the graph">
+    /**
+     * Add an uncolored vertex with no edges
+     * @param x : x value between [0,1]
+     * @param y : y value between [0,1]
+     * @return the new vertex's number, which is the old graph size
+     */
+    public int addVertex(double x, double y)
+    {
+        Vertex vertex = new Vertex(x, y);
+        vertex.setVertexNum(graphSize);
+        theGraph.put(graphSize, vertex);
+        changedVertices.add(graphSize);
+        compactGraph = null;
+        return graphSize++;
+    }
+    
+    /**
+     * Remove a vertex and its edges. Vertex numbers stay 0 .. n-1 by giving
+     * the last vertex the removed vertex's number
+     * @param vertexNum : the vertex to remove
+     * @return the old number of the vertex now numbered vertexNum, or -1 if
+     * the removed vertex was the last one
+     */
+    public int removeVertex(int vertexNum)
+    {
+        Vertex removed = vertex(vertexNum);
+        for (Vertex neighbor : removed.edges.values())
+        {
+            neighbor.edges.remove(vertexNum);
+        }
+        theGraph.remove(vertexNum);
+        changedVertices.remove(vertexNum);
+        compactGraph = null;
+        
+        int last = --graphSize;
+        if (vertexNum == last)
+        {
+            return -1;
+        }
+        Vertex moved = theGraph.remove(last);
+        moved.setVertexNum(vertexNum);
+        for (Vertex neighbor : moved.edges.values())
+        {
+            neighbor.edges.remove(last);
+            neighbor.edges.put(vertexNum, moved);
+        }
+        theGraph.put(vertexNum, moved);
+        if (changedVertices.remove(last))
+        {
+            changedVertices.add(vertexNum);
+        }
+        return last;
+    }
+    
+    /**
+     * Connect two vertices. Self loops and edges that already exist are ignored
+     * @param a : one end of the edge
+     * @param b : the other end
+     */
+    public void addEdge(int a, int b)
+    {
+        Vertex first = vertex(a);
+        Vertex second = vertex(b);
+        if (a == b || first.edges.containsKey(b))
+        {
+            return;
+        }
+        first.setEdge(second);
+        second.setEdge(first);
+        changedVertices.add(a);
+        changedVertices.add(b);
+        compactGraph = null;
+    }
+    
+    /**
+     * Disconnect two vertices, if they are connected. Removing an edge can
+     * not create a conflict so the vertices are not marked as changed
+     * @param a : one end of the edge
+     * @param b : the other end
+     */
+    public void removeEdge(int a, int b)
+    {
+        Vertex first = vertex(a);
+        Vertex second = vertex(b);
+        if (first.edges.remove(b) != null)
+        {
+            second.edges.remove(a);
+            compactGraph = null;
+        }
+    }
+    
+    /**
+     * @return the vertices added or given an edge since the last call, and
+     * forget them
+     */
+    public Set<Integer> takeChangedVertices()
+    {
+        Set<Integer> changed = new HashSet<>(changedVertices);
+        changedVertices.clear();
+        return changed;
+    }
+    
+    private Vertex vertex(int vertexNum)
+    {
+        Vertex vertex = theGraph.get(vertexNum);
+        if (vertex == null)
+        {
+            throw new IllegalArgumentException("No vertex " + vertexNum + " in a graph of " + graphSize + " vertices.");
+        }
+        return vertex;
+    }
+    // </editor-fold>
+    
     // <editor-fold defaultstate="collapsed" desc="Various print methods">
     /**
      * Look through all entries in theGraph and display meaningful details
@@ -150,5 +284,24 @@ public class Graph
         }
         return chromosomeArray;
     }
+    
+    /**
+     * Builds the CSR form of this graph on first use. The adjacency is 
+     * shared by every later caller, colors are refreshed from the vertices
+     * on every call.
+     * @return the compactGraph
+     */
+    public CompactGraph getCompactGraph() 
+    {
+        if (compactGraph == null)
+        {
+            compactGraph = CompactGraph.fromGraph(this);
+        }
+        else
+        {
+            compactGraph.readColorsFrom(this);
+        }
+        return compactGraph;
+    }
     // </editor-fold>
 }
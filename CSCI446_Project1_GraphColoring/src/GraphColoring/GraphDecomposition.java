@@ -0,0 +1,257 @@
+package GraphColoring;
+
+import java.util.Arrays;
+
+/**
+ * Splits a CompactGraph into its connected components and its biconnected
+ * blocks. A block is a largest piece of a component that stays connected
+ * when any one vertex is removed. Blocks share no edges, and two blocks
+ * share at most one vertex, an articulation point. A coloring of each block
+ * can therefore be joined into a coloring of the whole graph by renaming
+ * colors so the blocks agree at their articulation points.
+ *
+ * Both decompositions are found in one depth first search (Hopcroft and
+ * Tarjan), run with an explicit stack so long paths can not overflow the
+ * call stack. Vertices with no edges are blocks of their own.
+ *
+ * @version 10/18/26
+ */
+public class GraphDecomposition
+{
+    private final CompactGraph graph;
+    // componentOf[v] is the connected component of v, numbered from 0
+    private final int[] componentOf;
+    private int numComponents = 0;
+    // the vertices of block b are blockVertices[blockOffsets[b]] up to
+    // blockVertices[blockOffsets[b + 1]], in increasing order
+    private int[] blockOffsets = new int[16];
+    private int[] blockVertices = new int[16];
+    private int numBlocks = 0;
+    private int numBlockVertices = 0;
+    // the block being collected during the search
+    private int[] blockMembers = new int[16];
+    private int blockSize = 0;
+
+    /**
+     * @param graph : the graph to decompose
+     */
+    public GraphDecomposition(CompactGraph graph)
+    {
+        this.graph = graph;
+        componentOf = new int[graph.getNumVertices()];
+        decompose();
+    }
+
+    /**
+     * Depth first search that numbers each vertex in visiting order (disc)
+     * and tracks the lowest number reachable from its subtree using one back
+     * edge (low). When a child's subtree can not reach above its parent, the
+     * edges pushed since the tree edge to that child form a block
+     */
+    private void decompose()
+    {
+        int n = graph.getNumVertices();
+        int[] offsets = graph.offsets;
+        int[] neighbors = graph.neighbors;
+        int[] disc = new int[n];
+        int[] low = new int[n];
+        int[] parent = new int[n];
+        // next neighbor index to look at for each vertex on the search path
+        int[] nextNeighbor = new int[n];
+        int[] path = new int[n];
+        // edges seen but not yet assigned to a block, as (from, to) pairs
+        int[] edgeStack = new int[Math.max(2, neighbors.length)];
+        // last block each vertex was added to, so a block lists it once
+        int[] blockStamp = new int[n];
+        Arrays.fill(disc, -1);
+        Arrays.fill(blockStamp, -1);
+        int time = 0;
+
+        for (int root = 0; root < n; root++)
+        {
+            if (disc[root] != -1)
+            {
+                continue;
+            }
+            int component = numComponents++;
+            if (offsets[root] == offsets[root + 1])
+            {
+                componentOf[root] = component;
+                addBlock(new int[]{root}, 1);
+                continue;
+            }
+            int depth = 0;
+            int edges = 0;
+            path[depth++] = root;
+            disc[root] = low[root] = time++;
+            parent[root] = -1;
+            nextNeighbor[root] = offsets[root];
+            componentOf[root] = component;
+
+            while (depth > 0)
+            {
+                int v = path[depth - 1];
+                if (nextNeighbor[v] < offsets[v + 1])
+                {
+                    int w = neighbors[nextNeighbor[v]++];
+                    if (disc[w] == -1)
+                    {
+                        edgeStack[edges++] = v;
+                        edgeStack[edges++] = w;
+                        disc[w] = low[w] = time++;
+                        parent[w] = v;
+                        nextNeighbor[w] = offsets[w];
+                        componentOf[w] = component;
+                        path[depth++] = w;
+                    }
+                    else if (w != parent[v] && disc[w] < disc[v])
+                    {
+                        // back edge to an ancestor
+                        edgeStack[edges++] = v;
+                        edgeStack[edges++] = w;
+                        low[v] = Math.min(low[v], disc[w]);
+                    }
+                    continue;
+                }
+
+                depth--;
+                int p = parent[v];
+                if (p == -1)
+                {
+                    continue;
+                }
+                low[p] = Math.min(low[p], low[v]);
+                if (low[v] >= disc[p])
+                {
+                    // p separates v's subtree, pop its edges down to (p, v)
+                    blockSize = 0;
+                    int from;
+                    int to;
+                    do
+                    {
+                        to = edgeStack[--edges];
+                        from = edgeStack[--edges];
+                        addMember(from, blockStamp);
+                        addMember(to, blockStamp);
+                    } while (from != p || to != v);
+                    addBlock(blockMembers, blockSize);
+                }
+            }
+        }
+        blockOffsets = Arrays.copyOf(blockOffsets, numBlocks + 1);
+        blockVertices = Arrays.copyOf(blockVertices, numBlockVertices);
+    }
+
+    /**
+     * Add v to the block being collected unless it is already in it
+     */
+    private void addMember(int v, int[] blockStamp)
+    {
+        if (blockStamp[v] != numBlocks)
+        {
+            blockStamp[v] = numBlocks;
+            if (blockSize == blockMembers.length)
+            {
+                blockMembers = Arrays.copyOf(blockMembers, blockSize * 2);
+            }
+            blockMembers[blockSize++] = v;
+        }
+    }
+
+    private void addBlock(int[] members, int size)
+    {
+        if (numBlocks + 2 > blockOffsets.length)
+        {
+            blockOffsets = Arrays.copyOf(blockOffsets, blockOffsets.length * 2);
+        }
+        while (numBlockVertices + size > blockVertices.length)
+        {
+            blockVertices = Arrays.copyOf(blockVertices, blockVertices.length * 2);
+        }
+        System.arraycopy(members, 0, blockVertices, numBlockVertices, size);
+        Arrays.sort(blockVertices, numBlockVertices, numBlockVertices + size);
+        numBlockVertices += size;
+        blockOffsets[++numBlocks] = numBlockVertices;
+    }
+
+    /**
+     * Build block b as a graph of its own. Local vertex i of the result is
+     * global vertex getBlock(b)[i]
+     * @param b : the block number
+     * @return the block's vertices and the edges between them
+     */
+    public CompactGraph blockGraph(int b)
+    {
+        int[] members = getBlock(b);
+        int size = members.length;
+        double[] xValues = new double[size];
+        double[] yValues = new double[size];
+        int[] sources = new int[16];
+        int[] targets = new int[16];
+        int numEdges = 0;
+        for (int i = 0; i < size; i++)
+        {
+            int v = members[i];
+            xValues[i] = graph.xValues[v];
+            yValues[i] = graph.yValues[v];
+            for (int k = graph.offsets[v]; k < graph.offsets[v + 1]; k++)
+            {
+                int w = graph.neighbors[k];
+                // two blocks share at most one vertex, so every edge between
+                // members belongs to this block
+                int j = w > v ? Arrays.binarySearch(members, i + 1, size, w) : -1;
+                if (j >= 0)
+                {
+                    if (numEdges == sources.length)
+                    {
+                        sources = Arrays.copyOf(sources, numEdges * 2);
+                        targets = Arrays.copyOf(targets, numEdges * 2);
+                    }
+                    sources[numEdges] = i;
+                    targets[numEdges] = j;
+                    numEdges++;
+                }
+            }
+        }
+        return CompactGraph.fromEdgeList(size, sources, targets, numEdges, xValues, yValues);
+    }
+
+    // <editor-fold defaultstate="collapsed" desc="Basic Getters and Setters">
+    /**
+     * @param b : the block number
+     * @return the vertices of block b, in increasing order
+     */
+    public int[] getBlock(int b)
+    {
+        return Arrays.copyOfRange(blockVertices, blockOffsets[b], blockOffsets[b + 1]);
+    }
+
+    /**
+     * @param b : the block number
+     * @return the number of vertices in block b
+     */
+    public int getBlockSize(int b)
+    {
+        return blockOffsets[b + 1] - blockOffsets[b];
+    }
+
+    public int getNumBlocks()
+    {
+        return numBlocks;
+    }
+
+    public int getNumComponents()
+    {
+        return numComponents;
+    }
+
+    /**
+     * @param v : a vertex
+     * @return the connected component of v
+     */
+    public int getComponent(int v)
+    {
+        return componentOf[v];
+    }
+    // </editor-fold>
+}
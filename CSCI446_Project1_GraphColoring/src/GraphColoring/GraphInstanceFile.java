@@ -0,0 +1,164 @@
+package GraphColoring;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binary file format for storing a generated graph so the same instance can
+ * be replayed across runs, solvers and releases. The file is the CSR arrays
+ * laid out back to back in little endian order:
+ *
+ *   int magic ("GCOL"), int format version, int n, int neighbor count
+ *   double[n] x values, double[n] y values
+ *   int[n + 1] offsets, int[neighbor count] neighbors
+ *
+ * The 16 byte header keeps the doubles 8 byte aligned. Files are loaded
+ * through a memory mapped FileChannel, which is a bulk copy of each section
+ * into its array with no parsing.
+ *
+ * @version 10/18/26
+ */
+public final class GraphInstanceFile
+{
+    // the bytes 'G' 'C' 'O' 'L' read as a little endian int
+    private static final int magic = 0x4C4F4347;
+    private static final int formatVersion = 1;
+    private static final int headerBytes = 16;
+
+    private GraphInstanceFile()
+    {
+
+    }
+
+    /**
+     * Store graph's vertices and edges, not its colors. The file is written
+     * under a temporary name and renamed, so an interrupted write never
+     * leaves a partial instance behind
+     * @param graph : the graph to store
+     * @param file : where to store it, replaced if it exists
+     */
+    public static void write(CompactGraph graph, File file) throws IOException
+    {
+        int n = graph.getNumVertices();
+        int numNeighbors = graph.neighbors.length;
+        long size = fileSize(n, numNeighbors);
+        if (size > Integer.MAX_VALUE)
+        {
+            throw new IOException("Graph of " + n + " vertices is too big for one instance file.");
+        }
+
+        Path target = file.toPath();
+        Path temp = target.resolveSibling(file.getName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE))
+        {
+            // written from a heap buffer, some platforms can not rename a
+            // file while a mapping of it is still open
+            ByteBuffer buffer = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(magic).putInt(formatVersion).putInt(n).putInt(numNeighbors);
+            buffer.asDoubleBuffer().put(graph.xValues).put(graph.yValues);
+            buffer.position(buffer.position() + 16 * n);
+            buffer.asIntBuffer().put(graph.offsets).put(graph.neighbors);
+            buffer.rewind();
+            while (buffer.hasRemaining())
+            {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Load a graph stored by write(). Every vertex starts uncolored
+     * @param file : the instance file
+     * @return the stored graph
+     */
+    public static CompactGraph read(File file) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+        {
+            long length = channel.size();
+            if (length < headerBytes)
+            {
+                throw new IOException(file + " is not a graph instance file.");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt() != magic)
+            {
+                throw new IOException(file + " is not a graph instance file.");
+            }
+            int version = buffer.getInt();
+            if (version != formatVersion)
+            {
+                throw new IOException(file + " has format version " + version + ", expected " + formatVersion + ".");
+            }
+            int n = buffer.getInt();
+            int numNeighbors = buffer.getInt();
+            if (n < 0 || numNeighbors < 0 || fileSize(n, numNeighbors) != length)
+            {
+                throw new IOException(file + " is truncated or corrupt.");
+            }
+
+            double[] xValues = new double[n];
+            double[] yValues = new double[n];
+            int[] offsets = new int[n + 1];
+            int[] neighbors = new int[numNeighbors];
+            buffer.asDoubleBuffer().get(xValues).get(yValues);
+            buffer.position(buffer.position() + 16 * n);
+            buffer.asIntBuffer().get(offsets).get(neighbors);
+            if (!isWellFormed(offsets, neighbors))
+            {
+                throw new IOException(file + " is truncated or corrupt.");
+            }
+            return new CompactGraph(offsets, neighbors, xValues, yValues);
+        }
+    }
+
+    /**
+     * The solvers index straight into the CSR arrays, so a bad offset or
+     * neighbor id has to be caught here rather than fail deep in a search
+     * @return true if the offsets run from 0 up to the neighbor count without
+     * decreasing and every neighbor is a vertex of the graph
+     */
+    private static boolean isWellFormed(int[] offsets, int[] neighbors)
+    {
+        int n = offsets.length - 1;
+        if (offsets[0] != 0 || offsets[n] != neighbors.length)
+        {
+            return false;
+        }
+        for (int v = 0; v < n; v++)
+        {
+            if (offsets[v] > offsets[v + 1])
+            {
+                return false;
+            }
+        }
+        for (int neighbor : neighbors)
+        {
+            if (neighbor < 0 || neighbor >= n)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the size in bytes of the file for a graph of this size
+     */
+    private static long fileSize(int n, int numNeighbors)
+    {
+        return headerBytes + 16L * n + 4L * (n + 1) + 4L * numNeighbors;
+    }
+}
@@ -1,7 +1,11 @@
 package GraphColoring;
 
+import java.io.File;
+import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.util.*;
+import java.util.stream.IntStream;
 
 /**
  *
@@ -9,323 +13,389 @@ import java.util.*;
  */
 public class Graph_Generator 
 {
-    // create random instance 
-    Random rand = new Random();
+    // every random choice comes from this generator or from generators
+    // split off it, so the seed alone decides the graph
+    SplittableRandom rand;
+    private final long seed;
     // theGraph : a collection of vertices where the key is the vertex number
-    // and the value is the vertex instance
-    private final Map<Integer, Vertex> theGraph = new HashMap<>();
+    // and the value is the vertex instance. Only built once edges are connected
+    private Map<Integer, Vertex> theGraph = new HashMap<>();
     // constant to refer to for the provided graph size
     private final int graphSize;
+    // vertex locations, indexed by vertex number (ordered distance from origin)
+    private double[] xValues;
+    private double[] yValues;
+    // every edge connected so far, used to emit the CSR form of the graph
+    private int[] edgeSources = new int[16];
+    private int[] edgeTargets = new int[16];
+    private int numEdges = 0;
+    // adjacency[v] holds the first degree[v] vertices v has an edge to
+    private int[][] adjacency;
+    private int[] degree;
+    // the connected edges indexed by the grid cells they cover
+    private SegmentGrid edgeIndex;
+    // connectEdges() numbers the points along a z-order curve so points that
+    // are close on the unit square are also close in memory.
+    // spatialOrder[i] is the vertex number of the i-th point in that order
+    private int[] spatialOrder;
+    private double[] spatialX;
+    private double[] spatialY;
+    
+    // Each vertex only tries to connect to this many of its closest points.
+    // Graphs no larger than this + 1 consider every pair, like before the
+    // spatial index was added. Further points almost never produce an edge
+    // that does not cross the ones already placed around the vertex.
+    private final int candidateLimit = 32;
+    // points are placed in blocks of this many, each from its own generator,
+    // so blocks can be filled in parallel without changing the result
+    private static final int placementBlock = 4096;
+    // coordinates are whole thousandths of the unit square
+    private static final int gridSteps = 1000;
     
     /**
      * results and runs PrintWriter
      */
-    protected static PrintWriter results;
-    protected static PrintWriter runs;
+    protected PrintWriter results;
+    protected PrintWriter runs;
     
-    /** constructor to initialize Graph class and its attributes
+    /** constructor to initialize Graph class and its attributes. The seed
+     * is picked at random, getSeed() returns it so the graph can be generated
+     * again
      * 
      * @param n The number of vertices to have
      * @param run : writer used for text file output
      */
     public Graph_Generator(int n, PrintWriter run)
+    {
+        this(n, run, new SplittableRandom().nextLong());
+    }
+    
+    /** constructor for a repeatable graph, the same seed and size always
+     * generate the same vertices and edges
+     * 
+     * @param n The number of vertices to have
+     * @param run : writer used for text file output
+     * @param seed : seed for every random choice the generator makes
+     */
+    public Graph_Generator(int n, PrintWriter run, long seed)
     {
         graphSize = n;
+        this.seed = seed;
+        rand = new SplittableRandom(seed);
         
         runs = run;
     }
     
+    /**
+     * Generate count graphs of n vertices in parallel. Graph i is the graph
+     * new Graph_Generator(n, run, seeds[i]) makes, where the seeds are drawn
+     * in order from seed, so the batch is the same however it is scheduled
+     * @param n : the number of vertices in each graph
+     * @param count : how many graphs to generate
+     * @param seed : seed for the whole batch
+     * @return the graphs in CSR form
+     */
+    public static CompactGraph[] generateCompactGraphs(int n, int count, long seed)
+    {
+        SplittableRandom seeds = new SplittableRandom(seed);
+        long[] graphSeeds = new long[count];
+        for (int i = 0; i < count; i++)
+        {
+            graphSeeds[i] = seeds.nextLong();
+        }
+        // generateCompactGraph() writes no text, so the graphs share one writer
+        PrintWriter none = new PrintWriter(new StringWriter());
+        return IntStream.range(0, count).parallel()
+                .mapToObj(i -> new Graph_Generator(n, none, graphSeeds[i]).generateCompactGraph())
+                .toArray(CompactGraph[]::new);
+    }
+    
     public Graph generateGraph() 
     {
         fillGraphVertices();
-        printVertexPlacements();
+        // the dumps cost more than generating the graph, keep them for debugging
+        boolean dump = TraceLog.isEnabled(TraceLog.Level.DEBUG);
+        if (dump)
+            printVertexPlacements();
         connectEdges();
-        printGraph();
-        return new Graph(theGraph, runs); 
+        Graph graph = buildCompactGraph().toGraph(runs);
+        theGraph = graph.theGraph;
+        if (dump)
+            printGraph();
+        return graph; 
     }
     
     /**
-     * Instantiates a new vertex with randomized (x,y) location.
-     * Then gives each vertex a unique, incremental Integer identifier.
-     * Also orders the ArrayList of vertices in order of their distance 
-     * to point (0,0) then filles class variable 'theGraph' where each
-     * Integer key also represents the vertex's ordered distance from origin
+     * Generates the graph the same way generateGraph() does but returns it 
+     * in CSR form and skips the text file output, which is too large to be
+     * useful for big instances.
+     * @return the generated graph as a CompactGraph
+     */
+    public CompactGraph generateCompactGraph()
+    {
+        fillGraphVertices();
+        connectEdges();
+        return buildCompactGraph();
+    }
+    
+    /**
+     * Generates a graph and stores it as a binary instance file so it can
+     * be replayed with GraphInstanceFile.read()
+     * @param file : where to store the instance
+     * @return the generated graph as a CompactGraph
+     */
+    public CompactGraph generateInstance(File file) throws IOException
+    {
+        CompactGraph graph = generateCompactGraph();
+        GraphInstanceFile.write(graph, file);
+        return graph;
+    }
+    
+    private CompactGraph buildCompactGraph()
+    {
+        return CompactGraph.fromEdgeList(graphSize, edgeSources, edgeTargets, numEdges, xValues, yValues);
+    }
+    
+    /**
+     * Places each vertex at a random (x,y) location.
+     * Then orders the vertices by their distance to point (0,0) and fills
+     * the class coordinate arrays so each vertex number also represents
+     * the vertex's ordered distance from origin
      */
     private void fillGraphVertices() 
     {
-        ArrayList<Vertex> generatedVertices = new ArrayList<>(graphSize);
-        Random randInt = new Random();
+        // placement is split into blocks with a seed each, drawn in order so
+        // the points do not depend on how the blocks are scheduled
+        int numBlocks = (graphSize + placementBlock - 1) / placementBlock;
+        long[] blockSeeds = new long[numBlocks];
+        for (int b = 0; b < numBlocks; b++)
+        {
+            blockSeeds[b] = rand.nextLong();
+        }
+        int[] gridX = new int[graphSize];
+        int[] gridY = new int[graphSize];
+        IntStream.range(0, numBlocks).parallel().forEach(b ->
+        {
+            SplittableRandom blockRand = new SplittableRandom(blockSeeds[b]);
+            int end = Math.min(graphSize, (b + 1) * placementBlock);
+            for (int i = b * placementBlock; i < end; i++)
+            {
+                gridX[i] = blockRand.nextInt(gridSteps + 1);
+                gridY[i] = blockRand.nextInt(gridSteps + 1);
+            }
+        });
         
+        // sort on the squared distance to (0,0), which is exact on the grid.
+        // The point's index in the low bits keeps equal distances in
+        // placement order
+        long[] keys = new long[graphSize];
         for (int i = 0; i < graphSize; i++)
         {
-            double xValue = (double)randInt.nextInt(1001) / 1000;
-            double yValue = (double)randInt.nextInt(1001) / 1000;
-            
-            Vertex newVertex = new Vertex(xValue, yValue);
-            generatedVertices.add(i, newVertex);
+            long squaredDistance = (long) gridX[i] * gridX[i] + (long) gridY[i] * gridY[i];
+            keys[i] = (squaredDistance << 32) | i;
         }
+        Arrays.parallelSort(keys);
         
-        // <editor-fold defaultstate="collapsed" desc="Print vertex distances from 0 before sort">
-//        System.out.println("Vertex distance order before sort: ");
-//        generatedVertices.stream().forEach((vertex) -> {
-//            System.out.format("%f ", distance(0, 0, vertex.getxValue(), vertex.getyValue()));
-//        });
-        // </editor-fold>
-        
-        // sort the array based on distance to (0,0) using MergeSort
-        MergeSort vertexSort = new MergeSort();
-        generatedVertices = vertexSort.sort(generatedVertices);
-        
-        // <editor-fold defaultstate="collapsed" desc="Print vertex distances from 0 after sort">
-//        System.out.println("\nVertex distance order after sort: ");
-//        generatedVertices.stream().forEach((vertex) -> {
-//            System.out.format("%f ", distance(0, 0, vertex.getxValue(), vertex.getyValue()));
-//        });
-//        System.out.println("\n");
-        // </editor-fold>
-        
-        // assign the vertex its number and fill class field 'theGraph' with ordered vertices
-        for (int i = 0; i < generatedVertices.size(); i++)
+        // the vertex number is its index in the sorted order
+        xValues = new double[graphSize];
+        yValues = new double[graphSize];
+        for (int i = 0; i < graphSize; i++)
         {
-            Vertex currentVertex = generatedVertices.get(i);
-            currentVertex.setVertexNum(i); 
-            theGraph.put(i, generatedVertices.get(i));
+            int point = (int) keys[i];
+            xValues[i] = (double) gridX[point] / gridSteps;
+            yValues[i] = (double) gridY[point] / gridSteps;
         }
     }
     
     // <editor-fold defaultstate="collapsed" desc="All methods for connecting graph adges">
     /**
      * Pick node, find closest node to it and connect edge if valid.
-     *
-     * @param graph
+     * The closest points of each vertex come from a SpatialGrid query made 
+     * the first time the vertex is picked. candidates[v] is that list in 
+     * order of distance and nextCandidate[v] is how far v has walked it.
+     * Points are handled by their z-order number here, addEdge() converts
+     * them back to vertex numbers.
      */
     private void connectEdges()
     {
-        Map<Integer, ArrayList> vertices = initializeVertexMap();
+        orderPointsSpatially();
+        SpatialGrid grid = new SpatialGrid(spatialX, spatialY);
+        adjacency = new int[graphSize][];
+        degree = new int[graphSize];
+        edgeIndex = new SegmentGrid(spatialX, spatialY);
+        int[][] candidates = new int[graphSize][];
+        int[] numCandidates = new int[graphSize];
+        int[] nextCandidate = new int[graphSize];
+        int[] queryBuffer = new int[candidateLimit];
+        
+        // vertices that still have points left to try, removed by swapping
+        // with the last active vertex so a random pick stays O(1)
+        int[] active = new int[graphSize];
+        int[] activeIndex = new int[graphSize];
+        for (int i = 0; i < graphSize; i++)
+        {
+            active[i] = i;
+            activeIndex[i] = i;
+        }
+        int numActive = graphSize;
 
-        while (!vertices.isEmpty())//!vertices.isEmpty()
+        while (numActive > 0)
         {
-            // variable for random index used to select random point
-            ArrayList keysAsArray = new ArrayList(vertices.keySet());
-            int chosenPt = (int) keysAsArray.get(rand.nextInt(keysAsArray.size()));
+            int chosenPt = active[rand.nextInt(numActive)];
             boolean edgeSet = false;
 
-            //System.out.format("Point %d (%f, %f) chosen.%n", chosenPt, theGraph.get(chosenPt).getxValue(), theGraph.get(chosenPt).getyValue());
-
-            while (!edgeSet && vertices.containsKey(chosenPt))
+            if (candidates[chosenPt] == null)
             {
-                int closest = -1;        // closest distance to selected point 
-                float dist;             // current distance being checked
-                float pclosest = 100;   // closest distance to selected point seen thus far
+                numCandidates[chosenPt] = grid.nearest(chosenPt, candidateLimit, queryBuffer);
+                candidates[chosenPt] = Arrays.copyOf(queryBuffer, numCandidates[chosenPt]);
+            }
 
-                // loop through all points
-                ArrayList<Integer> current = vertices.get(chosenPt);
-                for (Iterator<Integer> iterator = current.iterator(); iterator.hasNext();) //for (int secondPt = 0; secondPt < numVertices; secondPt++)
+            while (!edgeSet)
+            {
+                // closest point that chosenPt does not already have an edge to
+                int closest = -1;
+                while (nextCandidate[chosenPt] < numCandidates[chosenPt])
                 {
-                    int secondPt = iterator.next();
-                    // only consider pairs that do not have an edge between them, both directions
-                    if (!theGraph.get(chosenPt).edges.containsKey(secondPt))
-                    {
-                        dist = distance(theGraph.get(chosenPt).getxValue(), theGraph.get(chosenPt).getyValue(), 
-                                theGraph.get(secondPt).getxValue(), theGraph.get(secondPt).getyValue());
-
-                        if (dist > 0 && dist < pclosest)
-                        {
-                            closest = secondPt;
-                            pclosest = dist;
-                        }
-
-                        //System.out.format("Distance between point %d and %d is %f.%n", chosenPt, secondPt, dist);
-                    } else
+                    int secondPt = candidates[chosenPt][nextCandidate[chosenPt]];
+                    if (!hasEdge(chosenPt, secondPt))
                     {
-                        iterator.remove();
+                        closest = secondPt;
+                        break;
                     }
+                    nextCandidate[chosenPt]++;
                 }
-                //System.out.format("Closest point is %d.%n%n", closest);
                 
-                if (!current.isEmpty())
+                if (closest == -1)
                 {
-                    if (!edgesIntersect(chosenPt, closest))
-                    {
-                        Vertex chosenV = theGraph.get(chosenPt); 
-                        Vertex secondV = theGraph.get(closest); 
-                        chosenV.setEdge(secondV);
-                        secondV.setEdge(chosenV); 
-                        //graph.setEdge(chosenPt, closest, 1); // add the edge to the graph 
-                        //graph.setEdge(closest, chosenPt, 1); // add symmetric edge since graph is symmetric 
-                        edgeSet = true; 
-                    } else
-                    {
-                        //System.out.println("Collision Detected\n");
-                        current.remove(current.indexOf(closest));
-                    }
-                } else
+                    // no points left to try, stop picking this vertex
+                    int lastPt = active[numActive - 1];
+                    active[activeIndex[chosenPt]] = lastPt;
+                    activeIndex[lastPt] = activeIndex[chosenPt];
+                    numActive--;
+                    candidates[chosenPt] = null;
+                    break;
+                }
+                
+                if (!edgesIntersect(chosenPt, closest))
                 {
-                    {
-                        vertices.remove(chosenPt);
-                    }
+                    addEdge(chosenPt, closest);
+                    edgeSet = true; 
+                } 
+                else
+                {
+                    //System.out.println("Collision Detected\n");
+                    nextCandidate[chosenPt]++;
                 }
             }
         }
     }
     
-        /**
-     * Set map to keep track of valid nodes to make connection to. key = point
-     * number, value = arraylist of currently valid nodes key node can connect
-     * to.
-     *
-     * @return
+    /**
+     * Fill spatialOrder, spatialX and spatialY by sorting the points on the
+     * z-order (Morton) code of their location
      */
-    private Map<Integer, ArrayList> initializeVertexMap()
+    private void orderPointsSpatially()
     {
-        ArrayList<Integer> possibleConnections = new ArrayList<>();
+        long[] keys = new long[graphSize];
         for (int i = 0; i < graphSize; i++)
         {
-            possibleConnections.add(i);
+            long code = interleaveBits((int) (xValues[i] * 0xFFFF)) | (interleaveBits((int) (yValues[i] * 0xFFFF)) << 1);
+            keys[i] = (code << 32) | i;
         }
-        Map<Integer, ArrayList> vertices = new HashMap<>();
+        Arrays.parallelSort(keys);
+        
+        spatialOrder = new int[graphSize];
+        spatialX = new double[graphSize];
+        spatialY = new double[graphSize];
         for (int i = 0; i < graphSize; i++)
         {
-            ArrayList<Integer> comparisonVertices = new ArrayList<>(possibleConnections);
-            comparisonVertices.remove(i);
-            vertices.put(i, comparisonVertices);
+            int vertexNum = (int) keys[i];
+            spatialOrder[i] = vertexNum;
+            spatialX[i] = xValues[vertexNum];
+            spatialY[i] = yValues[vertexNum];
         }
-        return vertices;
     }
-
-
+    
     /**
-     * Check whether or not edge between chosen point will intersect with
-     * existing edges
-     *
-     * @param graph
-     * @param point1
-     * @param point2
-     * @return : true if intersection found, false if not
+     * Spread the low 16 bits of value out to the even bit positions
      */
-    private boolean edgesIntersect(int point1, int point2)
+    private static long interleaveBits(int value)
     {
-        float[] eq1 = getLineEquation(point1, point2);
-
-        //find all existing edges and calculate whether or not there is a possible intersection
-        for (int i = 0; i < theGraph.keySet().size(); i++)
-        {
-            for (int j = 0; j < theGraph.keySet().size(); j++)
-            {
-                //if edge doesn't already exist
-                if (theGraph.get(i).edges.containsKey(j) && !(i == point1 && j == point2))
-                {
-                    float x = 0;
-                    float y = 0;
-                    float[] eq2 = getLineEquation(i, j);
-                    //line 1 is vertical 
-                    if (eq1 == null && eq2 != null)
-                    {
-                        x = (float) theGraph.get(point1).getxValue(); // getXPoint(point1);
-                        y = (eq2[0] * x) + eq2[1];
-                    } //line 2 is vertical
-                    else if (eq2 == null && eq1 != null)
-                    {
-                        x = (float) theGraph.get(i).getxValue();
-                        y = (eq1[0] * x) + eq1[1];
-                    } else if (eq1 == null && eq2 == null)
-                    {
-                        //two vertical lines
-                    } //find intersect point between two non vertical lines
-                    else
-                    {
-                        float m = eq2[0] - eq1[0];
-                        float b = eq1[1] - eq2[1];
-                        if (m == 0)
-                        {
-                            return false;
-                        }
-                        x = b / m;
-                        y = (eq1[0] * x) + eq1[1];
-                    }
-                    if (checkBounds(x, y, point1, point2) && checkBounds(x, y, i, j))
-                    {
-                        return true;
-                    }
-
-                }
-            }
-        }
-        return false;
+        long bits = value & 0xFFFF;
+        bits = (bits | (bits << 8)) & 0x00FF00FFL;
+        bits = (bits | (bits << 4)) & 0x0F0F0F0FL;
+        bits = (bits | (bits << 2)) & 0x33333333L;
+        bits = (bits | (bits << 1)) & 0x55555555L;
+        return bits;
     }
-
+    
     /**
-     * Check if a point falls within the x and y bounds of an edge between two
-     * points
-     *
-     * @param graph
-     * @param xIntercept
-     * @param yIntercept
      * @param point1
      * @param point2
-     * @return : true if within range, false if not
+     * @return true if an edge between the two points was already connected
      */
-    private boolean checkBounds(float xIntercept, float yIntercept, int point1, int point2)
+    private boolean hasEdge(int point1, int point2)
     {
-        //System.out.format("(%f, %f) 1:%d 2:%d.%n", xIntercept, yIntercept, point1, point2);
-        //if intercept falls within x range of edge
-        if ((xIntercept > theGraph.get(point1).getxValue() + .0001 && xIntercept < theGraph.get(point2).getxValue() - .0001)
-                || (xIntercept < theGraph.get(point1).getxValue() - .0001 && xIntercept > theGraph.get(point2).getxValue() + .0001))
+        int[] connections = adjacency[point1];
+        for (int i = 0; i < degree[point1]; i++)
         {
-            //if intercept falls within y range of edge
-            if ((yIntercept > theGraph.get(point1).getyValue() + .0001 && yIntercept < theGraph.get(point2).getyValue() - .0001)
-                    || (yIntercept < theGraph.get(point1).getyValue() - .0001 && yIntercept > theGraph.get(point2).getyValue() + .0001))
+            if (connections[i] == point2)
             {
                 return true;
             }
         }
         return false;
     }
-
+    
     /**
-     * get equation of line given two points
-     *
-     * @param graph
-     * @param point1
-     * @param point2
-     * @return array containing slope and y intercept or null if vertical
+     * Connect an edge between the two points in both directions and append 
+     * it to the edge list used to build the CSR graph
+     * @param point1 : z-order number of the first point
+     * @param point2 : z-order number of the second point
      */
-    private float[] getLineEquation(int point1, int point2)
+    private void addEdge(int point1, int point2)
     {
-        float[] mb = new float[2];
-        float x1 = (float) theGraph.get(point1).getxValue(); //getXPoint(point1);
-        float y1 = (float) theGraph.get(point1).getyValue(); //getYPoint(point1);
-        float x2 = (float) theGraph.get(point2).getxValue(); //getXPoint(point2);
-        float y2 = (float) theGraph.get(point2).getyValue(); //getYPoint(point2);
-
-        if (x1 != x2)
+        appendAdjacency(point1, point2);
+        appendAdjacency(point2, point1);
+        edgeIndex.addSegment(point1, point2);
+        
+        if (numEdges == edgeSources.length)
         {
-            float m = (y2 - y1) / (x2 - x1);
-            float b = (m * -x1) + y1;
-            mb[0] = m;
-            mb[1] = b;
-            return mb;
+            edgeSources = Arrays.copyOf(edgeSources, numEdges * 2);
+            edgeTargets = Arrays.copyOf(edgeTargets, numEdges * 2);
         }
-        return null;
+        edgeSources[numEdges] = spatialOrder[point1];
+        edgeTargets[numEdges] = spatialOrder[point2];
+        numEdges++;
     }
-    // </editor-fold>
     
+    private void appendAdjacency(int point, int connection)
+    {
+        if (adjacency[point] == null)
+        {
+            adjacency[point] = new int[8];
+        }
+        else if (degree[point] == adjacency[point].length)
+        {
+            adjacency[point] = Arrays.copyOf(adjacency[point], degree[point] * 2);
+        }
+        adjacency[point][degree[point]++] = connection;
+    }
+
     /**
-     * Mathematical function for Euclidian distance between two 2-d points.
-     * Distance between points P1(x_1, y_1) and P2(x_2, y_2) is
-     *     distance(P1,P2) = sqrt[(x_2 - x_1)^2 + (y_2 - y_1)^2]
-     * 
-     * @param x1 Pt1's x value
-     * @param y1 Pt1's y value
-     * @param x2 Pt2's x value
-     * @param y2 Pt2's y value
-     * @return the distance as a float
+     * Check whether or not edge between chosen point will intersect with
+     * existing edges. Only the edges listed in the grid cells the new edge
+     * passes over are tested.
+     *
+     * @param point1
+     * @param point2
+     * @return : true if intersection found, false if not
      */
-    private float distance(double x1, double y1, double x2, double y2) 
+    private boolean edgesIntersect(int point1, int point2)
     {
-        return (float) Math.sqrt((Math.pow((x2 - x1), 2) + Math.pow((y2 - y1), 2)));
+        return edgeIndex.crossesAny(point1, point2);
     }
-    
+    // </editor-fold>
     
     // <editor-fold defaultstate="collapsed" desc="Various print methods">
     /**
@@ -346,10 +416,9 @@ public class Graph_Generator
     public void printVertexPlacements()
     {
         runs.println("= Printing Vertex Locations =");
-        for (Integer key : theGraph.keySet())
+        for (int i = 0; i < graphSize; i++)
         {
-            Vertex currentVertex = theGraph.get(key);
-            runs.format("Vertex %d: (%f, %f)%n", key, currentVertex.getxValue(), currentVertex.getyValue());
+            runs.format("Vertex %d: (%f, %f)%n", i, xValues[i], yValues[i]);
         }
         runs.println();
     }
@@ -410,91 +479,14 @@ public class Graph_Generator
     {
         return graphSize;
     }
-    // </editor-fold>
     
-    // <editor-fold defaultstate="collapsed" desc="All the methods needed for doing merge sort">
     /**
-     * Takes an arraylist of vertices and sorts them into a new arraylist in order
-     * of closest to point (0,0) to furthers.
-     * Uses merge sort.
-     * Merge sort implementation referenced from 
-     * http://www.java2novice.com/java-sorting-algorithms/merge-sort/
-     * and nearly every java algorithms book written
-     * @param inputArray : The array to sort
+     * @return the seed, passing it to the seeded constructor with the same
+     * size generates this graph again
      */
-    class MergeSort
+    public long getSeed()
     {
-        private ArrayList<Vertex> inputArray;
-        private Vertex[] tempArray;
-        private int length;
-        
-        private ArrayList<Vertex> sort(ArrayList<Vertex> input)
-        {
-            this.inputArray = input;
-            length = inputArray.size();
-            tempArray = new Vertex[length];
-            doMergeSort(0, length - 1);
-            
-            return inputArray;
-        }
-        
-        private void doMergeSort(int lower, int higher)
-        {
-            if (lower < higher)
-            {
-                int middle = lower + (higher - lower) / 2;
-                doMergeSort(lower, middle);
-                doMergeSort(middle+1, higher);
-                mergeParts(lower, middle, higher);
-            }
-        }
-        
-        private void mergeParts(int lower, int middle, int higher)
-        {
-            for (int i = lower; i <= higher; i++)
-            {
-                tempArray[i] = inputArray.get(i);
-            }
-            int i = lower;
-            int j = middle + 1;
-            int k = lower;
-            while (i <= middle && j <= higher)
-            {
-                if (getDistanceAtIndex(i, tempArray) <= getDistanceAtIndex(j, tempArray))
-                {
-                    inputArray.set(k, tempArray[i]);
-                    i++;
-                }
-                else
-                {
-                    inputArray.set(k, tempArray[j]);
-                    j++;
-                }
-                k++;
-            }
-            while (i <= middle)
-            {
-                inputArray.set(k, tempArray[i]);
-                k++;
-                i++;
-            }
-        }
-        
-        private double getDistanceAtIndex(int index, Vertex[] array)
-        {
-            Vertex currentVertex = array[index];
-            double x1 = 0.0;
-            double y1 = 0.0;
-            double x2 = currentVertex.getxValue();
-            double y2 = currentVertex.getyValue();
-            
-            return distance(x1, y1, x2, y2);
-        }
-        
-        private float distance(double x1, double y1, double x2, double y2) 
-        {
-            return (float) Math.sqrt((Math.pow((x2 - x1), 2) + Math.pow((y2 - y1), 2)));
-        }
+        return seed;
     }
     // </editor-fold>
 }
\ No newline at end of file
@@ -0,0 +1,127 @@
+package GraphColoring;
+
+/**
+ * Fixed size histogram of non negative long values for reporting
+ * percentiles. Values below 64 are counted exactly, larger values fall in one
+ * of 32 buckets per power of two, so a reported percentile is within about 3%
+ * of the true value whatever the range. Recording is an array increment, and
+ * histograms of the same kind add together with merge().
+ *
+ * @version 10/18/26
+ */
+public class Histogram
+{
+    // buckets per power of two is 1 << subBucketBits
+    private static final int subBucketBits = 5;
+    private static final int subBuckets = 1 << subBucketBits;
+    // values below this get a bucket each
+    private static final int exactLimit = subBuckets * 2;
+    private static final int numBuckets = exactLimit + (63 - subBucketBits - 1) * subBuckets;
+
+    private final long[] counts = new long[numBuckets];
+    private long count = 0;
+    private long sum = 0;
+    private long max = 0;
+
+    /**
+     * @param value : the value to count, negative values count as 0
+     */
+    public void record(long value)
+    {
+        value = Math.max(0, value);
+        counts[bucketOf(value)]++;
+        count++;
+        sum += value;
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Add every value counted by other to this histogram
+     * @param other : the histogram to add
+     */
+    public void merge(Histogram other)
+    {
+        for (int i = 0; i < numBuckets; i++)
+        {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        sum += other.sum;
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * @param percent : 0 to 100
+     * @return the smallest value at least percent of the recorded values are
+     * at or below, to bucket accuracy. 0 if nothing was recorded
+     */
+    public long percentile(double percent)
+    {
+        if (count == 0)
+        {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percent / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < numBuckets; i++)
+        {
+            seen += counts[i];
+            if (seen >= rank)
+            {
+                return Math.min(highestValueIn(i), max);
+            }
+        }
+        return max;
+    }
+
+    private static int bucketOf(long value)
+    {
+        if (value < exactLimit)
+        {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - subBucketBits;
+        // the bits after the leading one pick the bucket within the power
+        int mantissa = (int) (value >>> shift) & (subBuckets - 1);
+        return exactLimit + (exponent - subBucketBits - 1) * subBuckets + mantissa;
+    }
+
+    private static long highestValueIn(int bucket)
+    {
+        if (bucket < exactLimit)
+        {
+            return bucket;
+        }
+        int shift = (bucket - exactLimit) / subBuckets + 1;
+        long mantissa = (bucket - exactLimit) % subBuckets;
+        long lowest = (subBuckets + mantissa) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    // <editor-fold defaultstate="collapsed" desc="Basic Getters and Setters">
+    /**
+     * @return how many values were recorded
+     */
+    public long getCount()
+    {
+        return count;
+    }
+
+    /**
+     * @return the largest value recorded, exactly
+     */
+    public long getMax()
+    {
+        return max;
+    }
+
+    /**
+     * @return the mean of the recorded values, 0 if there are none
+     */
+    public double getMean()
+    {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+    // </editor-fold>
+}
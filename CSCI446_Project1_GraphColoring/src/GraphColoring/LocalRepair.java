@@ -0,0 +1,255 @@
+package GraphColoring;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Repairs a coloring around the vertices of a graph that changed, instead of
+ * coloring the whole graph again. Starting from the changed vertices, each
+ * uncolored or conflicted vertex is given, in order of preference:
+ *
+ *   - a color none of its neighbors use
+ *   - a color freed by swapping a Kempe chain, the connected run of vertices
+ *     colored with two colors a and b, which keeps the rest valid
+ *   - its least conflicting color, passing the conflict on to the neighbors
+ *     that share it (a min-conflicts move)
+ *
+ * Only vertices on the work list and short Kempe chains are visited, and the
+ * number of moves is capped in proportion to the number of changed vertices,
+ * so the cost follows the size of the change and not the size of the graph.
+ * Works on the Vertex maps, which unlike the CSR arrays can change in place.
+ *
+ * @version 10/18/26
+ */
+public class LocalRepair
+{
+    // moves allowed per changed vertex before the repair gives up
+    private static final int movesPerChange = 64;
+    // most vertices a Kempe chain may hold and still be swapped
+    private static final int maxChainSize = 256;
+
+    private final Map<Integer, Vertex> theGraph;
+    private final int maxColors;
+    private final SplittableRandom rand = new SplittableRandom();
+    // conflicted vertices handled so far
+    private long moves = 0;
+
+    // vertices still to check, and the same vertices for quick lookups
+    private final ArrayDeque<Vertex> work = new ArrayDeque<>();
+    private final Set<Vertex> queued = new HashSet<>();
+
+    /**
+     * @param graph : the graph to repair, changed since it was last validly colored
+     * @param maxColors : the number of colors (3 or 4) allowed for this run
+     */
+    public LocalRepair(Graph graph, int maxColors)
+    {
+        this.theGraph = graph.theGraph;
+        this.maxColors = maxColors;
+    }
+
+    /**
+     * Remove every conflict that the changes could have caused. The graph
+     * is expected to have been validly colored before the changes
+     * @param changed : numbers of the added vertices and the ends of added edges
+     * @return true if every conflict was removed, false if the move limit was
+     * reached first. The graph keeps the partly repaired coloring either way
+     */
+    public boolean repair(Collection<Integer> changed)
+    {
+        for (Integer key : changed)
+        {
+            enqueue(theGraph.get(key));
+        }
+        long moveLimit = moves + (long) movesPerChange * Math.max(1, changed.size());
+        while (!work.isEmpty())
+        {
+            Vertex vertex = work.poll();
+            queued.remove(vertex);
+            if (vertex.color != -1 && vertex.calculateConflicts() == 0)
+            {
+                continue;
+            }
+            if (moves == moveLimit)
+            {
+                return false;
+            }
+            moves++;
+            if (!assignFreeColor(vertex) && !swapKempeChain(vertex))
+            {
+                moveToLeastConflicts(vertex);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return true if vertex was given a color no neighbor uses
+     */
+    private boolean assignFreeColor(Vertex vertex)
+    {
+        int[] uses = colorUses(vertex);
+        // start at a random color so repeated repairs spread the colors out
+        int start = rand.nextInt(maxColors);
+        for (int i = 0; i < maxColors; i++)
+        {
+            int color = (start + i) % maxColors;
+            if (uses[color] == 0)
+            {
+                setColor(vertex, color);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Look for colors a and b where swapping a and b along every chain that
+     * starts at an a colored neighbor leaves vertex with no a colored
+     * neighbor, then swap and color vertex a
+     * @return true if vertex was colored this way
+     */
+    private boolean swapKempeChain(Vertex vertex)
+    {
+        for (int a = 0; a < maxColors; a++)
+        {
+            for (int b = 0; b < maxColors; b++)
+            {
+                if (a == b)
+                {
+                    continue;
+                }
+                ArrayList<Vertex> chain = kempeChain(vertex, a, b);
+                if (chain != null)
+                {
+                    for (Vertex member : chain)
+                    {
+                        setColor(member, member.color == a ? b : a);
+                    }
+                    setColor(vertex, a);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the a / b colored vertices reachable from vertex's a colored
+     * neighbors without passing through vertex, or null if they include a b
+     * colored neighbor of vertex or more than maxChainSize vertices
+     */
+    private ArrayList<Vertex> kempeChain(Vertex vertex, int a, int b)
+    {
+        ArrayList<Vertex> chain = new ArrayList<>();
+        Set<Vertex> seen = new HashSet<>();
+        seen.add(vertex);
+        for (Vertex neighbor : vertex.edges.values())
+        {
+            if (neighbor.color == a && seen.add(neighbor))
+            {
+                chain.add(neighbor);
+            }
+        }
+        // the chain list doubles as the search queue
+        for (int i = 0; i < chain.size(); i++)
+        {
+            Vertex member = chain.get(i);
+            if (member.color == b && vertex.edges.containsKey(member.getVertexNum()))
+            {
+                // this neighbor would become a
+                return null;
+            }
+            for (Vertex next : member.edges.values())
+            {
+                if ((next.color == a || next.color == b) && seen.add(next))
+                {
+                    if (chain.size() == maxChainSize)
+                    {
+                        return null;
+                    }
+                    chain.add(next);
+                }
+            }
+        }
+        return chain;
+    }
+
+    /**
+     * Give vertex the color, other than its own, with the fewest conflicts
+     * and queue the neighbors it now conflicts with
+     */
+    private void moveToLeastConflicts(Vertex vertex)
+    {
+        int[] uses = colorUses(vertex);
+        int best = -1;
+        int ties = 0;
+        for (int color = 0; color < maxColors; color++)
+        {
+            if (color == vertex.color)
+            {
+                continue;
+            }
+            if (best == -1 || uses[color] < uses[best])
+            {
+                best = color;
+                ties = 1;
+            }
+            else if (uses[color] == uses[best] && rand.nextInt(++ties) == 0)
+            {
+                best = color;
+            }
+        }
+        setColor(vertex, best);
+        for (Vertex neighbor : vertex.edges.values())
+        {
+            if (neighbor.color == best)
+            {
+                enqueue(neighbor);
+            }
+        }
+    }
+
+    /**
+     * @return how many of vertex's neighbors have each color
+     */
+    private int[] colorUses(Vertex vertex)
+    {
+        int[] uses = new int[maxColors];
+        for (Vertex neighbor : vertex.edges.values())
+        {
+            if (neighbor.color >= 0 && neighbor.color < maxColors)
+            {
+                uses[neighbor.color]++;
+            }
+        }
+        return uses;
+    }
+
+    private void setColor(Vertex vertex, int color)
+    {
+        vertex.color = color;
+        TraceLog.event(TraceLog.Level.TRACE, TraceLog.Event.RECOLOR, vertex.getVertexNum(), color);
+    }
+
+    private void enqueue(Vertex vertex)
+    {
+        if (vertex != null && queued.add(vertex))
+        {
+            work.add(vertex);
+        }
+    }
+
+    /**
+     * @return the conflicted vertices handled so far, one decision each
+     */
+    public long getMoves()
+    {
+        return moves;
+    }
+}
@@ -0,0 +1,272 @@
+package GraphColoring;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Graph coloring using a memetic (hybrid evolutionary) algorithm in the style
+ * of Galinier and Hao. Like GeneticAlgorithmSolver it evolves a population of
+ * complete colorings stored back to back in one int array, but each
+ * generation makes a single child and improves it with a bounded Tabucol
+ * run (TabucolSolver.improve()) before it joins the population, replacing
+ * the less fit of its parents.
+ *
+ * Children come from the greedy partition crossover (GPX), which treats a
+ * coloring as k color classes rather than a color per vertex. Colors carry no
+ * meaning of their own, so cutting chromosomes at a position mixes unrelated
+ * labels, while a class is a set of vertices that may share a color. GPX
+ * takes the largest class left from each parent in turn, removes its vertices
+ * from both parents and gives the rest random colors. Tabucol repairs what
+ * the crossover breaks, and the crossover moves the search to regions the
+ * tabu search would not reach on its own.
+ *
+ * @version 10/18/26
+ */
+public class MemeticSolver extends ConstraintSolver
+{
+    /**
+     * Tunable parameters
+     */
+    private final int populationSize = 10;
+    private final int maxGenerations = 1000;
+    // Tabucol moves given to each new individual, at least the minimum and
+    // more on large graphs whose conflicts are spread over many places
+    private final int minLocalSearchIterations = 10000;
+    private final int localSearchIterationsPerNode = 2;
+    private int localSearchIterations;
+
+    private final SplittableRandom rand = new SplittableRandom();
+    private int n;
+    private int[] offsets;
+    private int[] neighbors;
+    private TabucolSolver localSearch;
+
+    // the colors of individual i are genes[i * n] up to genes[(i + 1) * n]
+    private int[] genes;
+    // conflicting edges of each individual after its local search
+    private int[] conflicts;
+    private int[] child;
+    // GPX scratch: classSize[p * maxColors + c] is how many vertices still
+    // unassigned in the child have color c in parent p (0 or 1)
+    private int[] classSize;
+    private int[] order;
+    private int generations;
+    // individuals made so far, initial ones and children
+    private int individuals;
+
+    public MemeticSolver()
+    {
+
+    }
+
+    @Override
+    public void runSolver()
+    {
+        localSearchIterations = Math.max(minLocalSearchIterations,
+                localSearchIterationsPerNode * compactGraph.getNumVertices());
+        runs.println("Tunable parameter settings: ");
+        runs.format(" - Population Size: %d%n - Generations: %d%n - Local Search Iterations: %d%n",
+                populationSize, maxGenerations, localSearchIterations);
+
+        generations = 0;
+        individuals = 0;
+        initialize();
+        int best = bestIndex();
+        runs.format("Initial population's best individual has %d conflicting edges.%n", conflicts[best]);
+
+        while (conflicts[best] > 0 && generations < maxGenerations && !outOfBudget(decisions()))
+        {
+            int parent1 = rand.nextInt(populationSize);
+            int parent2 = rand.nextInt(populationSize - 1);
+            if (parent2 >= parent1)
+            {
+                parent2++;
+            }
+            individuals++;
+            crossover(parent1, parent2);
+            int childConflicts = localSearch.improve(child, 0, localSearchLimit());
+
+            // the child replaces the less fit parent
+            int replaced = conflicts[parent1] >= conflicts[parent2] ? parent1 : parent2;
+            System.arraycopy(child, 0, genes, replaced * n, n);
+            conflicts[replaced] = childConflicts;
+            if (childConflicts < conflicts[best])
+            {
+                best = replaced;
+            }
+            else if (replaced == best)
+            {
+                best = bestIndex();
+            }
+            TraceLog.event(TraceLog.Level.DEBUG, TraceLog.Event.GENERATION, generations, conflicts[best]);
+            generations++;
+        }
+        decisionsMade = decisions();
+        System.arraycopy(genes, best * n, compactGraph.colors, 0, n);
+        compactGraph.writeColorsTo(graph);
+
+        runs.println();
+        runs.println("=== Program Output Values ===");
+        runs.format("Valid Coloring: %b, with %d out of %d nodes correctly colored.%n",
+                conflicts[best] == 0, compactGraph.calculateFitness(), n);
+        runs.format("Generations: %d, conflicting edges left: %d%n", generations, conflicts[best]);
+        runs.format("Decisions Made: %d%n", decisionsMade);
+    }
+
+    /**
+     * Fill the population with greedy colorings, each improved by the local
+     * search. The first is made in vertex order, which like TabucolSolver's
+     * start keeps whatever locality the numbering has, the rest in random
+     * orders so the population is diverse
+     */
+    private void initialize()
+    {
+        n = compactGraph.getNumVertices();
+        offsets = compactGraph.offsets;
+        neighbors = compactGraph.neighbors;
+        localSearch = new TabucolSolver(compactGraph, maxColors, this);
+        genes = new int[populationSize * n];
+        conflicts = new int[populationSize];
+        // individuals not made before a cancel are never the best
+        Arrays.fill(conflicts, Integer.MAX_VALUE);
+        child = new int[n];
+        classSize = new int[2 * maxColors];
+        order = new int[n];
+        for (int v = 0; v < n; v++)
+        {
+            order[v] = v;
+        }
+
+        int[] uses = new int[maxColors];
+        for (int individual = 0; individual < populationSize && !outOfBudget(decisions()); individual++)
+        {
+            if (individual > 0 && conflicts[individual - 1] == 0)
+            {
+                // the local search already found a valid coloring
+                break;
+            }
+            individuals++;
+            int start = individual * n;
+            // Fisher-Yates shuffle of the coloring order
+            for (int i = n - 1; i > 0 && individual > 0; i--)
+            {
+                int j = rand.nextInt(i + 1);
+                int swap = order[i];
+                order[i] = order[j];
+                order[j] = swap;
+            }
+            Arrays.fill(genes, start, start + n, -1);
+            for (int v : order)
+            {
+                Arrays.fill(uses, 0);
+                for (int i = offsets[v]; i < offsets[v + 1]; i++)
+                {
+                    int color = genes[start + neighbors[i]];
+                    if (color != -1)
+                    {
+                        uses[color]++;
+                    }
+                }
+                int best = rand.nextInt(maxColors);
+                for (int color = 0; color < maxColors; color++)
+                {
+                    if (uses[color] < uses[best])
+                    {
+                        best = color;
+                    }
+                }
+                genes[start + v] = best;
+            }
+            conflicts[individual] = localSearch.improve(genes, start, localSearchLimit());
+        }
+    }
+
+    /**
+     * Greedy partition crossover. For colors 0 to k - 1, alternating between
+     * the parents, the parent's color class with the most vertices not yet
+     * in the child is copied into the child as that color. Vertices left
+     * over get random colors
+     * @param parent1 : population index of the first parent
+     * @param parent2 : population index of the second parent
+     */
+    private void crossover(int parent1, int parent2)
+    {
+        int start1 = parent1 * n;
+        int start2 = parent2 * n;
+        Arrays.fill(classSize, 0);
+        for (int v = 0; v < n; v++)
+        {
+            classSize[genes[start1 + v]]++;
+            classSize[maxColors + genes[start2 + v]]++;
+            child[v] = -1;
+        }
+
+        for (int color = 0; color < maxColors; color++)
+        {
+            int from = color % 2;
+            int fromStart = from == 0 ? start1 : start2;
+            int otherStart = from == 0 ? start2 : start1;
+            int fromRow = from * maxColors;
+            int otherRow = (1 - from) * maxColors;
+            int largest = 0;
+            for (int c = 1; c < maxColors; c++)
+            {
+                if (classSize[fromRow + c] > classSize[fromRow + largest])
+                {
+                    largest = c;
+                }
+            }
+            for (int v = 0; v < n; v++)
+            {
+                if (child[v] == -1 && genes[fromStart + v] == largest)
+                {
+                    child[v] = color;
+                    classSize[otherRow + genes[otherStart + v]]--;
+                }
+            }
+            classSize[fromRow + largest] = 0;
+        }
+
+        for (int v = 0; v < n; v++)
+        {
+            if (child[v] == -1)
+            {
+                child[v] = rand.nextInt(maxColors);
+            }
+        }
+    }
+
+    /**
+     * @return the population index with the fewest conflicting edges
+     */
+    private int bestIndex()
+    {
+        int best = 0;
+        for (int individual = 1; individual < populationSize; individual++)
+        {
+            if (conflicts[individual] < conflicts[best])
+            {
+                best = individual;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Each local search gets its usual moves, or what is left of the decision
+     * budget if that is less, so no local search runs past the budget
+     * @return most moves for the next local search
+     */
+    private int localSearchLimit()
+    {
+        return (int) Math.max(0, Math.min(localSearchIterations, getDecisionBudget() - decisions()));
+    }
+
+    /**
+     * @return local search moves plus one per individual made
+     */
+    private long decisions()
+    {
+        return localSearch.getDecisionsMade() + individuals;
+    }
+}
@@ -1,244 +1,251 @@
 package GraphColoring;
 
-import static GraphColoring.ConstraintSolver.runs;
-import java.util.Iterator;
 import java.util.Random;
-import java.util.Scanner;
 
 
 /**
- * Graph coloring constraint solver using the min conflicts strategy 
- * @version 09/08/16
+ * Graph coloring constraint solver using the min conflicts strategy. Works on
+ * the CSR graph with a table of how many neighbors of each vertex have each
+ * color, updated in O(degree) per recolor, and an indexed set of the vertices
+ * currently in conflict. Picking a conflicted vertex and checking for a
+ * solution are both O(1).
+ * @version 10/18/26
  */
 public class MinConflictsSolver extends ConstraintSolver
 {
-    private int steps = 10;
-    
+    // most recolorings to try before giving up
+    private int steps = 1000000;
+    // chance of giving the picked node a random color instead of its least
+    // conflicting one, which lets the search walk off plateaus
+    private final double randomWalkRate = 0.02;
+    // steps between progress events in the trace log
+    private final int stepPrintMod = 100000;
+
+    private final Random rand = new Random();
+    private int numPoints;
+    private int[] offsets;
+    private int[] neighbors;
+    private int[] colors;
+
+    // conflictTable[v * maxColors + c] is how many neighbors of v have color c
+    private int[] conflictTable;
+    // the vertices in conflict are conflicted[0 .. numConflicted - 1].
+    // conflictIndex[v] is v's position in conflicted, or -1 if v has no conflict
+    private int[] conflicted;
+    private int[] conflictIndex;
+    private int numConflicted;
+    // colors tied for the fewest conflicts while choosing a new color
+    private int[] bestColors;
+    // the coloring with the fewest conflicted vertices seen so far. It is
+    // only copied out when a step leaves it, bestSaved is false while the
+    // current coloring is that best
+    private int[] bestColoring;
+    private int bestConflicted;
+    private boolean bestSaved;
+
     public MinConflictsSolver()
     {
-        
+
     }
-    
+
     @Override
     public void runSolver()
     {
-        boolean validColoring = false;
         decisionsMade = 0;
-        
-        // create Scanner object to take input from user
-        Scanner input = new Scanner(System.in);
-        // create Random object to generate random numbers
-        Random rand = new Random();
-        
+
         runs.println("Tunable parameter settings:");
         runs.println("Number of allowed steps: " + steps);
+        runs.println("Random walk rate: " + randomWalkRate);
         runs.println();
-        
-        // create iterator to loop through nodes
-        Iterator itr = graph.theGraph.keySet().iterator();
-        //runs.println("minConflicts algorithm");
-       
-        runs.println();
+
         runs.println("== Initialization phase ==");
-        // start up new iterator
-        itr = graph.theGraph.keySet().iterator();
+        initialize();
+        runs.format("Greedy assignment left %d of %d nodes in conflict.%n", numConflicted, numPoints);
 
         /**
-         * Create a complete assignment using a greedy local search
-         */
-        // Color first vertex with first color
-        int firstKey = (int)itr.next();
-        theGraph.get(firstKey).color = 1;
-        //System.out.format("Gave vertex %d color %d.%n", theGraph.get(firstKey).getVertexNum(), theGraph.get(firstKey).color);
-        
-        // For all other vertices color the vertex the lowest available color 
-        //that is not used by any vertex it is connected to
-        while (itr.hasNext())
-        {
-            int nextKey = (int)itr.next();
-            Vertex currentVertex = theGraph.get(nextKey);
-            currentVertex.color = 1;
-            
-            for (Iterator<Vertex> it = currentVertex.edges.values().iterator(); it.hasNext();) 
-            {
-                Vertex connectedVertex = it.next();
-                if (currentVertex.color == connectedVertex.color)
-                {
-                    currentVertex.color++;
-                    //System.out.format("Found adjacent node with same color. Increasing color to %d%n", currentVertex.color);
-                    // restart the iterator
-                    it = currentVertex.edges.values().iterator();
-                }
-            }
-            
-            //System.out.format("Gave vertex %d color %d.%n", currentVertex.getVertexNum(), currentVertex.color);
-        }
-        //graph.printGraph();
-        
-        /**
-         * keeping trying solutions till a solution has been found or 
+         * keeping trying solutions till a solution has been found or
          * the specified number of steps
          */
         int step = 0;
-        while (step < steps)
+        while (numConflicted > 0 && step < steps && !outOfBudget())
         {
-            runs.println("step " + step);
-            /**
-             * Go through all nodes with conflicts and resolve them
-             */
-            // start up new iterator
-            itr = graph.theGraph.keySet().iterator();
-            while (itr.hasNext())
-            { 
-                int nextKey = (int)itr.next();
-                //runs.println("Node " + nextKey);
-                Vertex currentVertex = theGraph.get(nextKey);
-                runs.println();
-                runs.println("Checking conflicts of Node " + nextKey);
-                if (Conflicts(nextKey) > 0)
-                {
-                    resolveConflicts(nextKey);
-                }
-                runs.format("Gave vertex %d color %d.%n", currentVertex.getVertexNum(), currentVertex.color);
-                decisionsMade++;
-            }    
-            step++;
-            
+            if (step % stepPrintMod == 0)
+                TraceLog.event(TraceLog.Level.INFO, TraceLog.Event.STEP, step, numConflicted);
+
+            // take a random conflicted node and give it its least conflicting color
+            int vertex = conflicted[rand.nextInt(numConflicted)];
+            int color = rand.nextDouble() < randomWalkRate ? rand.nextInt(maxColors) : leastConflictingColor(vertex);
+            int oldColor = colors[vertex];
+            recolor(vertex, color);
+            TraceLog.event(TraceLog.Level.TRACE, TraceLog.Event.RECOLOR, vertex, color);
+            trackBest(vertex, oldColor);
             decisionsMade++;
-            if (checkSolution() == true)
-            {
-                step = steps;
-                validColoring = true;
-            }
-            runs.println();
+            step++;
+        }
+        if (bestSaved && numConflicted > bestConflicted)
+        {
+            // stopped early, hand back the best coloring instead of the last
+            System.arraycopy(bestColoring, 0, colors, 0, numPoints);
+            numConflicted = bestConflicted;
         }
-        // if not solved by now, stop
-        
-        graph.printGraph();
-        
+        boolean validColoring = numConflicted == 0;
+        compactGraph.writeColorsTo(graph);
+
         /**
          * Output program values
          */
         runs.println();
         runs.println("=== Program Output Values ===");
-        runs.println("Valid Coloring: " + validColoring + ", with " + graph.calculateFitness() + " of 10 nodes correctly colored.");
+        runs.println("Valid Coloring: " + validColoring + ", with " + compactGraph.calculateFitness()
+                + " of " + numPoints + " nodes correctly colored.");
+        runs.println("Steps Taken: " + step);
         runs.println("Decisions Made: " + decisionsMade);
         runs.println();
         runs.println("minConflicts finished");
         runs.println();
     }
-    
+
     /**
-     * Check if problem solved yet
+     * Create a complete assignment using a greedy local search, coloring
+     * each vertex with the color least used by its already colored
+     * neighbors, then build the conflict set from the table. This is a
+     * single linear pass the search needs before it can start, so it is not
+     * counted as decisions and the budget only limits the search steps
      */
-    private boolean checkSolution() 
+    private void initialize()
     {
-        /**
-         * Check if random assignment is a solution
-         */
-        boolean checkSolution = checkIfSolution();
-        if (checkSolution == false)
+        numPoints = compactGraph.getNumVertices();
+        offsets = compactGraph.offsets;
+        neighbors = compactGraph.neighbors;
+        colors = compactGraph.colors;
+        compactGraph.clearColors();
+
+        conflictTable = new int[numPoints * maxColors];
+        conflicted = new int[numPoints];
+        conflictIndex = new int[numPoints];
+        bestColors = new int[maxColors];
+        numConflicted = 0;
+
+        for (int v = 0; v < numPoints; v++)
         {
-            runs.println();
-            runs.println("Not a solution");
-            return false;
+            // the table only counts colored neighbors at this point
+            int color = leastConflictingColor(v);
+            colors[v] = color;
+            for (int i = offsets[v]; i < offsets[v + 1]; i++)
+            {
+                conflictTable[neighbors[i] * maxColors + color]++;
+            }
+        }
+
+        for (int v = 0; v < numPoints; v++)
+        {
+            conflictIndex[v] = -1;
+            updateConflictSet(v);
         }
-        else if (checkSolution == true)
+
+        bestColoring = new int[numPoints];
+        bestConflicted = numConflicted;
+        bestSaved = false;
+    }
+
+    /**
+     * Keep the best coloring up to date after a recolor
+     * @param vertex : the vertex just recolored
+     * @param oldColor : its color before the step
+     */
+    private void trackBest(int vertex, int oldColor)
+    {
+        if (numConflicted < bestConflicted)
         {
-            runs.println();
-            runs.println("It's a solution");
-            return true;
+            bestConflicted = numConflicted;
+            bestSaved = false;
         }
-        else
+        else if (numConflicted > bestConflicted && !bestSaved)
         {
-            runs.println();
-            runs.println("checkIfSolution() seems to have failed...");
+            // the coloring before this step was a best one, save it
+            System.arraycopy(colors, 0, bestColoring, 0, numPoints);
+            bestColoring[vertex] = oldColor;
+            bestSaved = true;
         }
-            
-        return false;
     }
-    
+
     /**
-    * Check if the assignment is a solution 
-    */
-    private boolean checkIfSolution() 
+     * Choose the color which causes the least number of conflicts for the
+     * vertex, breaking ties at random
+     * @param vertex
+     * @return the chosen color
+     */
+    private int leastConflictingColor(int vertex)
     {
-        boolean check = false; // flag to indicate if solution or not
-        
-        // start up new iterator
-        Iterator itr = graph.theGraph.keySet().iterator();
-            
-        // iterate through all the vertices
-        while (itr.hasNext())
+        int row = vertex * maxColors;
+        int leastConflicts = Integer.MAX_VALUE;
+        int numBest = 0;
+        for (int color = 0; color < maxColors; color++)
         {
-            int nextKey = (int)itr.next();
-            Vertex currentVertex = theGraph.get(nextKey);
-
-            for (Iterator<Vertex> it = currentVertex.edges.values().iterator(); it.hasNext();) 
+            int conflicts = conflictTable[row + color];
+            if (conflicts < leastConflicts)
             {
-                Vertex connectedVertex = it.next();
-                decisionsMade++;
-                if (currentVertex.color == connectedVertex.color)
-                {
-                    return false;
-                }
+                leastConflicts = conflicts;
+                numBest = 0;
+            }
+            if (conflicts == leastConflicts)
+            {
+                bestColors[numBest++] = color;
             }
         }
-        return true;
+        return numBest == 1 ? bestColors[0] : bestColors[rand.nextInt(numBest)];
     }
-    
-    
+
     /**
-     * Count the number of conflicts
-     * @return the number of conflicts  
+     * Give the vertex a new color, updating the conflict table rows of its
+     * neighbors and the conflict set
+     * @param vertex
+     * @param color
      */
-    private int Conflicts(int curKey) 
+    private void recolor(int vertex, int color)
     {
-        int conflicts = 0;
-        // start up new iterator
-        Iterator itr = graph.theGraph.keySet().iterator();
-            
-        Vertex currentVertex = theGraph.get(curKey);
-
-        for (Iterator<Vertex> it = currentVertex.edges.values().iterator(); it.hasNext();) 
+        int oldColor = colors[vertex];
+        if (oldColor == color)
         {
-            Vertex connectedVertex = it.next();
-            //runs.println("Connected Node " + connectedVertex.getVertexNum());
-            decisionsMade++;
-            if (currentVertex.color == connectedVertex.color)
+            return;
+        }
+        colors[vertex] = color;
+        for (int i = offsets[vertex]; i < offsets[vertex + 1]; i++)
+        {
+            int neighbor = neighbors[i];
+            int row = neighbor * maxColors;
+            conflictTable[row + oldColor]--;
+            conflictTable[row + color]++;
+            // only neighbors wearing the old or new color can change state
+            int neighborColor = colors[neighbor];
+            if (neighborColor == oldColor || neighborColor == color)
             {
-                conflicts++;
+                updateConflictSet(neighbor);
             }
         }
-        runs.println("Node " + curKey + " has least number of conflicts at " + conflicts + " conflicts");
-        return conflicts;
+        updateConflictSet(vertex);
     }
-    
+
     /**
-     * Resolves as many conflicts of given node as possible by iterating
-     * over conflicting variables and choosing the color which causes the 
-     * least number of conflicts
-     * @param curKey 
+     * Add the vertex to or remove it from the conflict set to match the table
+     * @param vertex
      */
-    private void resolveConflicts(int curKey)
+    private void updateConflictSet(int vertex)
     {
-        int bestColor = 1;
-        int leastConflicts = theGraph.size(); // assume it conflicts with every node, just to start with something
-        // loop through the colors
-        for(int curColor = 1; curColor < maxColors + 1; curColor++)
+        boolean inConflict = conflictTable[vertex * maxColors + colors[vertex]] > 0;
+        int index = conflictIndex[vertex];
+        if (inConflict && index == -1)
         {
-            runs.print("If Node " + curKey + " colored with color " + curColor);
-            runs.println();
-            theGraph.get(curKey).color = curColor;
-            decisionsMade++;
-            if(Conflicts(curKey) < leastConflicts)
-            {
-                leastConflicts = Conflicts(curKey);
-                bestColor = curColor;
-            }
+            conflictIndex[vertex] = numConflicted;
+            conflicted[numConflicted++] = vertex;
+        }
+        else if (!inConflict && index != -1)
+        {
+            // swap the last member into the freed slot
+            int last = conflicted[--numConflicted];
+            conflicted[index] = last;
+            conflictIndex[last] = index;
+            conflictIndex[vertex] = -1;
         }
-        theGraph.get(curKey).color = bestColor;
-        //graph.printGraph();
     }
 }
-
@@ -0,0 +1,224 @@
+package GraphColoring;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Graph coloring constraint solver that runs the propagation engine's
+ * backtracking search on every core. The top of the search tree is split
+ * into subproblems: down to splitDepth, each color of the chosen vertex gets
+ * its own copy of the engine (PropagationEngine.branch()) and its own
+ * RecursiveTask. Below splitDepth a task searches its subtree sequentially.
+ *
+ * The tasks run on a ForkJoinPool with one worker per core. Subtrees differ
+ * wildly in size, so there are many more tasks than workers and idle workers
+ * steal the queued ones. The first task to color the graph copies its
+ * coloring into the graph and every other task stops at its next decision.
+ * The graph is proven uncolorable only if every subtree is.
+ *
+ * @version 10/18/26
+ */
+public class ParallelBacktrackingSolver extends ConstraintSolver
+{
+    // stop searching after about this many decisions, summed over the tasks
+    private final int maxDecisions = 5000000;
+    // subproblems wanted per worker, so stealing can even out the load
+    private final int tasksPerWorker = 16;
+    // decisions a sequential search makes between adding its count to the total
+    private final int publishInterval = 1024;
+
+    private static final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    private final PropagationEngine.Mode mode;
+    private int splitDepth;
+    // decisions made by the splits and published by the sequential searches
+    private final AtomicLong totalDecisions = new AtomicLong();
+    private volatile boolean solved;
+    private final AtomicInteger subproblems = new AtomicInteger();
+
+    public ParallelBacktrackingSolver()
+    {
+        this(PropagationEngine.Mode.ARC_CONSISTENCY);
+    }
+
+    /**
+     * @param mode : how far the engine propagates after each assignment
+     */
+    public ParallelBacktrackingSolver(PropagationEngine.Mode mode)
+    {
+        this.mode = mode;
+    }
+
+    @Override
+    public void runSolver()
+    {
+        PropagationEngine engine = new PropagationEngine(compactGraph, maxColors, mode);
+        totalDecisions.set(0);
+        solved = false;
+        subproblems.set(0);
+        // the first two depths have only 1 and 2 colors to try because of
+        // symmetry breaking, after that about maxColors each
+        splitDepth = 2 + (int) Math.ceil(Math.log((double) pool.getParallelism() * tasksPerWorker)
+                / Math.log(Math.max(2, maxColors)));
+
+        boolean validColoring = false;
+        if (!refutedByClique())
+        {
+            SolveStatus status = pool.invoke(new SearchTask(engine, 0));
+            validColoring = status == SolveStatus.SOLVED;
+            provenUnsatisfiable = status == SolveStatus.PROVEN_UNSAT;
+        }
+        decisionsMade = totalDecisions.get();
+        compactGraph.writeColorsTo(graph);
+
+        runs.println();
+        runs.println("=== Program Output Values ===");
+        runs.format("Searched %d subproblems on %d workers.%n", subproblems.get(), pool.getParallelism());
+        runs.format("Valid Coloring: %b, with %d out of %d nodes correctly colored.%n",
+                validColoring, compactGraph.calculateFitness(), compactGraph.getNumVertices());
+        runs.format("Decisions Made: %d%n", decisionsMade);
+    }
+
+    @Override
+    protected boolean usesHelperThreads()
+    {
+        return true;
+    }
+
+    /**
+     * Keep the first complete coloring found, every later one is ignored
+     */
+    private synchronized void found(PropagationEngine engine)
+    {
+        if (solved)
+        {
+            return;
+        }
+        for (int v = 0; v < compactGraph.getNumVertices(); v++)
+        {
+            compactGraph.colors[v] = engine.getColor(v);
+        }
+        solved = true;
+    }
+
+    /**
+     * Search of the subtree below the assignments already made in engine
+     */
+    private class SearchTask extends RecursiveTask<SolveStatus>
+    {
+        private static final long serialVersionUID = 1L;
+
+        // released when compute() starts, a finished task waiting for its
+        // parent to join it should not hold a copy of the graph state
+        private PropagationEngine engine;
+        private final int depth;
+        // the sequential search's decisions already added to totalDecisions
+        private long published = 0;
+
+        /**
+         * @param engine : the subproblem's state, owned by this task
+         * @param depth : number of branch() assignments above this task
+         */
+        SearchTask(PropagationEngine engine, int depth)
+        {
+            this.engine = engine;
+            this.depth = depth;
+        }
+
+        @Override
+        protected SolveStatus compute()
+        {
+            PropagationEngine engine = this.engine;
+            this.engine = null;
+            if (solved || totalDecisions.get() >= maxDecisions || outOfBudget(totalDecisions.get()))
+            {
+                return SolveStatus.TIMED_OUT;
+            }
+            int vertex = engine.selectUnassigned();
+            if (vertex == -1)
+            {
+                found(engine);
+                return SolveStatus.SOLVED;
+            }
+            if (depth >= splitDepth)
+            {
+                return searchSequentially(engine);
+            }
+
+            long remaining = engine.getDomain(vertex) & symmetryMask(engine.getHighestBranchColor(), maxColors);
+            List<SearchTask> children = new ArrayList<>(Long.bitCount(remaining));
+            for (; remaining != 0; remaining &= remaining - 1)
+            {
+                int color = Long.numberOfTrailingZeros(remaining);
+                totalDecisions.incrementAndGet();
+                TraceLog.event(TraceLog.Level.TRACE, TraceLog.Event.ASSIGN, vertex, color);
+                PropagationEngine child = engine.branch(vertex, color);
+                if (child != null)
+                {
+                    children.add(new SearchTask(child, depth + 1));
+                }
+            }
+            invokeAll(children);
+
+            // proven uncolorable only if every child subtree was
+            SolveStatus status = SolveStatus.PROVEN_UNSAT;
+            for (SearchTask child : children)
+            {
+                SolveStatus childStatus = child.join();
+                if (childStatus == SolveStatus.SOLVED)
+                {
+                    return SolveStatus.SOLVED;
+                }
+                if (childStatus == SolveStatus.TIMED_OUT)
+                {
+                    status = SolveStatus.TIMED_OUT;
+                }
+            }
+            return status;
+        }
+
+        /**
+         * Run the engine's own backtracking on the subtree until the graph is
+         * colored or the decisions of every task together reach the limit
+         */
+        private SolveStatus searchSequentially(PropagationEngine engine)
+        {
+            subproblems.incrementAndGet();
+            SolveStatus status = engine.backtrack(ParallelBacktrackingSolver.this, maxDecisions,
+                    () -> shouldStop(engine.getDecisions()));
+            totalDecisions.addAndGet(engine.getDecisions() - published);
+            if (status == SolveStatus.SOLVED)
+            {
+                found(engine);
+            }
+            return status;
+        }
+
+        /**
+         * Called by the sequential search once per decision. The decisions
+         * are added to the shared total every publishInterval, so the other
+         * tasks see them without a contended update per decision
+         * @param decisions : decisions the sequential search has made
+         * @return true if the graph was colored by another task or the shared
+         * total is over the limit or the solve() budget
+         */
+        private boolean shouldStop(long decisions)
+        {
+            long total;
+            if (decisions - published >= publishInterval)
+            {
+                total = totalDecisions.addAndGet(decisions - published);
+                published = decisions;
+            }
+            else
+            {
+                total = totalDecisions.get() + decisions - published;
+            }
+            return solved || total >= maxDecisions || outOfBudget(total);
+        }
+    }
+}
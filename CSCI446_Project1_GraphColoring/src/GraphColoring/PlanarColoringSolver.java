@@ -0,0 +1,323 @@
+package GraphColoring;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Graph coloring solver without search, for graphs like the generated ones
+ * whose edges never cross. A planar graph always has a vertex of degree 5 or
+ * less, so removing the vertex of lowest remaining degree over and over
+ * (smallest-last order) and coloring in the reverse order leaves every vertex
+ * at most 5 colored neighbors when its turn comes.
+ *
+ * Each vertex takes the lowest color its colored neighbors leave free. When
+ * they use every color, a Kempe chain is swapped: for colors a and b, the
+ * a / b colored vertices connected to the a colored neighbors swap a and b.
+ * The coloring stays valid and, unless the chain reaches a b colored
+ * neighbor, color a is freed. The few vertices no chain frees are given
+ * their least conflicting color and handed to a LocalRepair.
+ *
+ * The ordering uses bucket queues on the CSR graph and takes O(n + m). Chain
+ * searches give up past a size limit that grows only while no shorter chain
+ * works, so each swap costs about as much as the shortest chain that frees a
+ * color and the whole run stays close to linear.
+ *
+ * @version 10/18/26
+ */
+public class PlanarColoringSolver extends ConstraintSolver
+{
+    private int numPoints;
+    private int[] colors;
+    private int[] offsets;
+    private int[] neighbors;
+
+    // Kempe chain search state. chainStamp[v] is the stamp of the last
+    // search that reached v, so nothing has to be cleared between searches
+    private int[] chainStamp;
+    private int stamp = 0;
+    private int[] chain;
+    private int kempeSwaps = 0;
+    // chain size limits tried, growing from the first by the growth factor
+    private static final int firstChainLimit = 32;
+    private static final int chainLimitGrowth = 8;
+    private static final int chainTooLong = -2;
+
+    public PlanarColoringSolver()
+    {
+
+    }
+
+    @Override
+    public void runSolver()
+    {
+        if (maxColors > 64)
+        {
+            throw new RuntimeException("PlanarColoringSolver supports at most 64 colors, " + maxColors + " requested.");
+        }
+        numPoints = compactGraph.getNumVertices();
+        offsets = compactGraph.offsets;
+        neighbors = compactGraph.neighbors;
+        colors = compactGraph.colors;
+        compactGraph.clearColors();
+        chainStamp = new int[numPoints];
+        chain = new int[numPoints];
+        decisionsMade = 0;
+        kempeSwaps = 0;
+
+        int[] order = smallestLastOrder();
+        ArrayList<Integer> unresolved = new ArrayList<>();
+        for (int i = 0; i < numPoints && !outOfBudget(); i++)
+        {
+            int v = order[i];
+            decisionsMade++;
+            if (!assignFreeColor(v) && !swapKempeChain(v))
+            {
+                colors[v] = leastConflictingColor(v);
+                unresolved.add(v);
+            }
+            TraceLog.event(TraceLog.Level.TRACE, TraceLog.Event.ASSIGN, v, colors[v]);
+        }
+        compactGraph.writeColorsTo(graph);
+
+        if (!unresolved.isEmpty() && !outOfBudget())
+        {
+            LocalRepair repair = new LocalRepair(graph, maxColors);
+            repair.repair(unresolved);
+            decisionsMade += repair.getMoves();
+        }
+
+        runs.println();
+        runs.println("=== Program Output Values ===");
+        runs.format("Kempe chain swaps: %d, vertices left to local repair: %d%n", kempeSwaps, unresolved.size());
+        runs.format("Valid Coloring: %b, with %d out of %d nodes correctly colored.%n",
+                graphSatisfiesConstraint(), graph.calculateFitness(), numPoints);
+        runs.format("Decisions Made: %d%n", decisionsMade);
+    }
+
+    /**
+     * Repeatedly remove the vertex with the fewest neighbors left. Vertices
+     * are kept in one doubly linked list per remaining degree, and the lowest
+     * non empty list can only move down by one per removal, so the scan for
+     * it is O(n + m) over the whole run
+     * @return the vertices in coloring order, the reverse of removal order
+     */
+    private int[] smallestLastOrder()
+    {
+        int maxDegree = 0;
+        int[] degree = new int[numPoints];
+        for (int v = 0; v < numPoints; v++)
+        {
+            degree[v] = compactGraph.degree(v);
+            maxDegree = Math.max(maxDegree, degree[v]);
+        }
+        int[] bucketHead = new int[maxDegree + 1];
+        int[] next = new int[numPoints];
+        int[] prev = new int[numPoints];
+        Arrays.fill(bucketHead, -1);
+        for (int v = 0; v < numPoints; v++)
+        {
+            insert(v, degree[v], bucketHead, next, prev);
+        }
+
+        boolean[] removed = new boolean[numPoints];
+        int[] order = new int[numPoints];
+        int lowest = 0;
+        for (int i = numPoints - 1; i >= 0; i--)
+        {
+            while (bucketHead[lowest] == -1)
+            {
+                lowest++;
+            }
+            int v = bucketHead[lowest];
+            unlink(v, degree[v], bucketHead, next, prev);
+            removed[v] = true;
+            order[i] = v;
+            for (int k = offsets[v]; k < offsets[v + 1]; k++)
+            {
+                int w = neighbors[k];
+                if (!removed[w])
+                {
+                    unlink(w, degree[w], bucketHead, next, prev);
+                    insert(w, --degree[w], bucketHead, next, prev);
+                }
+            }
+            lowest = Math.max(0, lowest - 1);
+        }
+        return order;
+    }
+
+    private static void insert(int v, int bucket, int[] bucketHead, int[] next, int[] prev)
+    {
+        next[v] = bucketHead[bucket];
+        prev[v] = -1;
+        if (bucketHead[bucket] != -1)
+        {
+            prev[bucketHead[bucket]] = v;
+        }
+        bucketHead[bucket] = v;
+    }
+
+    private static void unlink(int v, int bucket, int[] bucketHead, int[] next, int[] prev)
+    {
+        if (prev[v] != -1)
+        {
+            next[prev[v]] = next[v];
+        }
+        else
+        {
+            bucketHead[bucket] = next[v];
+        }
+        if (next[v] != -1)
+        {
+            prev[next[v]] = prev[v];
+        }
+    }
+
+    /**
+     * @return true if v was given the lowest color no colored neighbor uses
+     */
+    private boolean assignFreeColor(int v)
+    {
+        long used = 0;
+        for (int k = offsets[v]; k < offsets[v + 1]; k++)
+        {
+            int color = colors[neighbors[k]];
+            if (color != -1)
+            {
+                used |= 1L << color;
+            }
+        }
+        long free = ~used & (maxColors == 64 ? -1L : (1L << maxColors) - 1);
+        if (free == 0)
+        {
+            return false;
+        }
+        colors[v] = Long.numberOfTrailingZeros(free);
+        return true;
+    }
+
+    /**
+     * Try every pair of colors a and b for a chain swap that frees a at v.
+     * A two color chain can run across most of a large graph, so all pairs
+     * are first tried with a small chain size limit which then grows. The
+     * shortest chain that works is found for little more than its own cost
+     * @return true if v was colored a after a swap
+     */
+    private boolean swapKempeChain(int v)
+    {
+        for (int limit = firstChainLimit; ; limit *= chainLimitGrowth)
+        {
+            boolean cutShort = false;
+            for (int a = 0; a < maxColors; a++)
+            {
+                for (int b = 0; b < maxColors; b++)
+                {
+                    if (a == b)
+                    {
+                        continue;
+                    }
+                    int size = kempeChain(v, a, b, limit);
+                    if (size == chainTooLong)
+                    {
+                        cutShort = true;
+                    }
+                    else if (size >= 0)
+                    {
+                        for (int i = 0; i < size; i++)
+                        {
+                            colors[chain[i]] = colors[chain[i]] == a ? b : a;
+                        }
+                        colors[v] = a;
+                        kempeSwaps++;
+                        return true;
+                    }
+                }
+            }
+            if (!cutShort || limit >= numPoints)
+            {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Fill chain with the a / b colored vertices reachable from v's a colored
+     * neighbors without passing through v
+     * @param limit : most vertices the chain may hold
+     * @return the number of vertices in the chain, -1 if it reaches a b
+     * colored neighbor of v, which would stop a from being freed, or
+     * chainTooLong if it holds more than limit vertices
+     */
+    private int kempeChain(int v, int a, int b, int limit)
+    {
+        // v itself is still uncolored so the search never enters it
+        int visited = ++stamp;
+        int blockedNeighbor = ++stamp;
+        int size = 0;
+        for (int k = offsets[v]; k < offsets[v + 1]; k++)
+        {
+            int w = neighbors[k];
+            if (colors[w] == a)
+            {
+                chainStamp[w] = visited;
+                chain[size++] = w;
+            }
+            else if (colors[w] == b)
+            {
+                chainStamp[w] = blockedNeighbor;
+            }
+        }
+        // the chain doubles as the search queue
+        for (int i = 0; i < size; i++)
+        {
+            int u = chain[i];
+            for (int k = offsets[u]; k < offsets[u + 1]; k++)
+            {
+                int w = neighbors[k];
+                if (colors[w] != a && colors[w] != b)
+                {
+                    continue;
+                }
+                if (chainStamp[w] == blockedNeighbor)
+                {
+                    return -1;
+                }
+                if (chainStamp[w] != visited)
+                {
+                    if (size == limit)
+                    {
+                        return chainTooLong;
+                    }
+                    chainStamp[w] = visited;
+                    chain[size++] = w;
+                }
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return the color shared with the fewest colored neighbors of v
+     */
+    private int leastConflictingColor(int v)
+    {
+        int[] uses = new int[maxColors];
+        for (int k = offsets[v]; k < offsets[v + 1]; k++)
+        {
+            int color = colors[neighbors[k]];
+            if (color != -1)
+            {
+                uses[color]++;
+            }
+        }
+        int best = 0;
+        for (int color = 1; color < maxColors; color++)
+        {
+            if (uses[color] < uses[best])
+            {
+                best = color;
+            }
+        }
+        return best;
+    }
+}
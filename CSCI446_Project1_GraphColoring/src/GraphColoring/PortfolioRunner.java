@@ -0,0 +1,159 @@
+package GraphColoring;
+
+import com.rits.cloning.Cloner;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs a portfolio of solvers on the same graph at the same time. Each solver
+ * gets its own deep copy of the graph so the runs do not share any coloring
+ * state. The first solver to finish with a valid coloring wins, its coloring
+ * is copied into the original graph and every other solver is cancelled.
+ * Each solver writes its text output to a buffer of its own, and only the
+ * winner's is copied to the run log, so cancelled solvers still finishing
+ * can not mix their reports into a later race's output.
+ *
+ * @version 10/18/26
+ */
+public class PortfolioRunner
+{
+    private final List<Class<?>> solverClasses;
+    private final ExecutorService executor;
+    private final Cloner cloner = new Cloner();
+    // nanoseconds from the start of the last solve() until a winner was found
+    private long timeToFirstColoring;
+
+    /**
+     * @param solverClasses : the ConstraintSolver classes to race
+     * @param numThreads : how many solvers may run at once
+     */
+    public PortfolioRunner(List<Class<?>> solverClasses, int numThreads)
+    {
+        this.solverClasses = solverClasses;
+        // writers are replaced per race, they must not be copied with the graph
+        cloner.dontCloneInstanceOf(PrintWriter.class);
+        executor = Executors.newFixedThreadPool(numThreads, runnable ->
+        {
+            Thread thread = new Thread(runnable, "portfolio-solver");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Race every solver on its own copy of the graph
+     * @param graph : the graph to color. Receives the winning coloring
+     * @param maxColors : number of colors allowed
+     * @param run : writer for the winning solver's text output
+     * @return the solver that found the first valid coloring, or null if no
+     * solver found one
+     */
+    public ConstraintSolver solve(Graph graph, int maxColors, PrintWriter run) throws InterruptedException
+    {
+        long startTime = System.nanoTime();
+        ExecutorCompletionService<ConstraintSolver> completion = new ExecutorCompletionService<>(executor);
+        ArrayList<ConstraintSolver> solvers = new ArrayList<>(solverClasses.size());
+        ArrayList<StringWriter> outputs = new ArrayList<>(solverClasses.size());
+
+        for (Class<?> solverClass : solverClasses)
+        {
+            ConstraintSolver solver;
+            try
+            {
+                solver = (ConstraintSolver) solverClass.getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException e)
+            {
+                throw new RuntimeException("Can not create a " + solverClass.getSimpleName() + " for the portfolio.", e);
+            }
+            StringWriter output = new StringWriter();
+            // copy here rather than on the worker, a solver still queued when
+            // the race ends must not read the graph after solve() returns
+            solver.updateGraph(cloner.deepClone(graph));
+            solvers.add(solver);
+            outputs.add(output);
+            completion.submit(() ->
+            {
+                solver.setMaxColors(maxColors);
+                solver.assignPrintWriter(new PrintWriter(output));
+                solver.runMeasured();
+                return solver;
+            });
+        }
+
+        ConstraintSolver winner = null;
+        for (int i = 0; i < solvers.size() && winner == null; i++)
+        {
+            try
+            {
+                ConstraintSolver finished = completion.take().get();
+                if (isCompleteColoring(finished, maxColors))
+                {
+                    winner = finished;
+                }
+            } catch (ExecutionException e)
+            {
+                run.format("Portfolio solver failed: %s%n", e.getCause());
+            }
+        }
+        timeToFirstColoring = System.nanoTime() - startTime;
+
+        // the rest stop at their next cancellation check, nobody waits on them
+        for (ConstraintSolver solver : solvers)
+        {
+            solver.cancel();
+        }
+
+        if (winner != null)
+        {
+            run.print(outputs.get(solvers.indexOf(winner)));
+            for (Map.Entry<Integer, Vertex> entry : graph.theGraph.entrySet())
+            {
+                entry.getValue().color = winner.theGraph.get(entry.getKey()).color;
+            }
+        }
+        return winner;
+    }
+
+    /**
+     * @param solver : a solver that has finished
+     * @param maxColors : number of colors allowed
+     * @return true if every vertex of the solver's graph has a color below
+     * maxColors and no two neighbors share one. Solvers that stop early can
+     * leave scattered vertices uncolored, which the constraint check alone
+     * does not notice
+     */
+    private static boolean isCompleteColoring(ConstraintSolver solver, int maxColors)
+    {
+        for (Vertex vertex : solver.theGraph.values())
+        {
+            if (vertex.color < 0 || vertex.color >= maxColors)
+            {
+                return false;
+            }
+        }
+        return solver.isSatisfiesConstraint();
+    }
+
+    /**
+     * Stop the worker threads, cancelling anything still running
+     */
+    public void shutdown()
+    {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @return nanoseconds the last solve() took to get its first valid coloring
+     */
+    public long getTimeToFirstColoring()
+    {
+        return timeToFirstColoring;
+    }
+}
@@ -0,0 +1,421 @@
+package GraphColoring;
+
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Constraint propagation over the CSR graph shared by the backtracking
+ * solvers. Each vertex's remaining colors are a long bitmask (bit c set means
+ * color c is still allowed), so at most 64 colors are supported.
+ *
+ * Every domain change is pushed onto a trail holding the vertex and its old
+ * domain. mark() remembers the trail size and undo(mark) pops back to it, so
+ * backtracking restores state without copying any domains.
+ *
+ * In FORWARD_CHECKING mode assigning a color removes it from the uncolored
+ * neighbors. ARC_CONSISTENCY mode also runs AC-3: for "not equal" edges a
+ * domain can only shrink a neighbor's domain once it is down to one color,
+ * so every vertex reduced to one color is queued and its color removed from
+ * its own uncolored neighbors until nothing changes.
+ *
+ * branch() copies the engine with one more vertex assigned, so a parallel
+ * search can hand each subtree its own state (see ParallelBacktrackingSolver).
+ * A copy starts with a small trail and no search stack, most copies are
+ * only branched again and never backtrack.
+ *
+ * @version 10/18/26
+ */
+public class PropagationEngine
+{
+    public enum Mode
+    {
+        FORWARD_CHECKING,
+        ARC_CONSISTENCY
+    }
+
+    private final Mode mode;
+    private final int numPoints;
+    private final int maxColors;
+    private final int[] offsets;
+    private final int[] neighbors;
+    // color of each vertex, -1 while unassigned. Shared with the CompactGraph
+    // except in copies made by branch()
+    private final int[] colors;
+    private final long[] domains;
+    private int numAssigned = 0;
+
+    // trailVertex[i] is the vertex whose domain was trailDomain[i] before
+    // change i. Assignments are stored as -1 - vertex so undo also clears
+    // the color
+    private int[] trailVertex;
+    private long[] trailDomain;
+    private int trailSize = 0;
+
+    // AC-3 queue of vertices whose domain became a single color
+    private final int[] queue;
+    private final boolean[] queued;
+    private int queueSize = 0;
+
+    // the vertex, the colors left to try and the trail mark at each depth,
+    // and the highest color used at or below that depth. Allocated by the
+    // first backtrack()
+    private int[] stackVertex;
+    private long[] stackRemaining;
+    private int[] stackMark;
+    private int[] stackHighestColor;
+    private long decisions = 0;
+    // highest color assigned through branch() before backtrack() starts
+    private int highestBranchColor = -1;
+
+    /**
+     * Start with every vertex unassigned and every color allowed
+     * @param graph : the graph to color, its colors array is written to
+     * @param maxColors : number of colors allowed
+     * @param mode : how far to propagate after each assignment
+     */
+    public PropagationEngine(CompactGraph graph, int maxColors, Mode mode)
+    {
+        if (maxColors > 64)
+        {
+            throw new RuntimeException("PropagationEngine supports at most 64 colors, " + maxColors + " requested.");
+        }
+        this.mode = mode;
+        this.maxColors = maxColors;
+        numPoints = graph.getNumVertices();
+        offsets = graph.offsets;
+        neighbors = graph.neighbors;
+        colors = graph.colors;
+        graph.clearColors();
+
+        long allColors = maxColors == 64 ? -1L : (1L << maxColors) - 1;
+        domains = new long[numPoints];
+        Arrays.fill(domains, allColors);
+
+        trailVertex = new int[Math.max(16, numPoints)];
+        trailDomain = new long[trailVertex.length];
+        queue = new int[numPoints];
+        queued = new boolean[numPoints];
+    }
+
+    /**
+     * Copy another engine's domains and assignment, with an empty trail that
+     * grows as it is used.
+     * The copy writes to its own colors array, not the CompactGraph's
+     * @param other : the engine to copy
+     */
+    private PropagationEngine(PropagationEngine other)
+    {
+        mode = other.mode;
+        maxColors = other.maxColors;
+        numPoints = other.numPoints;
+        offsets = other.offsets;
+        neighbors = other.neighbors;
+        colors = other.colors.clone();
+        domains = other.domains.clone();
+        numAssigned = other.numAssigned;
+        highestBranchColor = other.highestBranchColor;
+
+        trailVertex = new int[16];
+        trailDomain = new long[trailVertex.length];
+        queue = new int[numPoints];
+        queued = new boolean[numPoints];
+    }
+
+    /**
+     * Copy this engine and assign a color in the copy. This engine is not
+     * changed
+     * @param vertex : an unassigned vertex
+     * @param color : a color still in its domain
+     * @return the copy, or null if the assignment left some vertex with no
+     * allowed color
+     */
+    public PropagationEngine branch(int vertex, int color)
+    {
+        PropagationEngine child = new PropagationEngine(this);
+        if (!child.assign(vertex, color))
+        {
+            return null;
+        }
+        child.highestBranchColor = Math.max(highestBranchColor, color);
+        // the branch assignment is never undone
+        child.trailSize = 0;
+        return child;
+    }
+
+    /**
+     * Chronological backtracking choosing the unassigned vertex with the
+     * fewest remaining colors (MRV) and trying its colors in order. Only one
+     * color not used yet is tried at each depth since the unused colors are
+     * interchangeable
+     * @param solver : the solver running the search, checked for its budget
+     * @param maxDecisions : give up after this many color assignments
+     * @return SOLVED if every vertex was assigned a color, PROVEN_UNSAT if
+     * every choice failed, TIMED_OUT if the search was stopped first
+     */
+    public SolveStatus backtrack(ConstraintSolver solver, long maxDecisions)
+    {
+        return backtrack(solver, maxDecisions, () -> false);
+    }
+
+    /**
+     * backtrack(solver, maxDecisions) that also gives up once stop returns
+     * true, checked once per decision
+     * @param solver : the solver running the search, checked for its budget
+     * @param maxDecisions : give up after this many color assignments
+     * @param stop : true once the search is no longer needed
+     * @return SOLVED, PROVEN_UNSAT or TIMED_OUT as for the other backtrack()
+     */
+    public SolveStatus backtrack(ConstraintSolver solver, long maxDecisions, BooleanSupplier stop)
+    {
+        if (stackVertex == null)
+        {
+            stackVertex = new int[numPoints];
+            stackRemaining = new long[numPoints];
+            stackMark = new int[numPoints];
+            stackHighestColor = new int[numPoints];
+        }
+        int depth = 0;
+        boolean descending = true;
+
+        while (decisions < maxDecisions && !solver.outOfBudget(decisions) && !stop.getAsBoolean())
+        {
+            if (descending)
+            {
+                int vertex = selectUnassigned();
+                if (vertex == -1)
+                {
+                    return SolveStatus.SOLVED;
+                }
+                int highestUsed = depth == 0 ? highestBranchColor : stackHighestColor[depth - 1];
+                stackVertex[depth] = vertex;
+                stackRemaining[depth] = domains[vertex] & ConstraintSolver.symmetryMask(highestUsed, maxColors);
+                stackMark[depth] = mark();
+            }
+            else
+            {
+                TraceLog.event(TraceLog.Level.TRACE, TraceLog.Event.BACKTRACK, stackVertex[depth], colors[stackVertex[depth]]);
+                undo(stackMark[depth]);
+            }
+
+            long remaining = stackRemaining[depth];
+            if (remaining == 0)
+            {
+                // every color failed, go back to the previous vertex
+                depth--;
+                if (depth < 0)
+                {
+                    return SolveStatus.PROVEN_UNSAT;
+                }
+                descending = false;
+                continue;
+            }
+            int color = Long.numberOfTrailingZeros(remaining);
+            stackRemaining[depth] = remaining & (remaining - 1);
+
+            decisions++;
+            TraceLog.event(TraceLog.Level.TRACE, TraceLog.Event.ASSIGN, stackVertex[depth], color);
+            descending = assign(stackVertex[depth], color);
+            if (descending)
+            {
+                stackHighestColor[depth] = Math.max(color, depth == 0 ? highestBranchColor : stackHighestColor[depth - 1]);
+                depth++;
+            }
+        }
+        return SolveStatus.TIMED_OUT;
+    }
+
+    /**
+     * Give vertex a color and propagate the change
+     * @param vertex : an unassigned vertex
+     * @param color : a color still in its domain
+     * @return false if some vertex was left with no allowed color. The
+     * partial changes stay on the trail for the caller to undo
+     */
+    public boolean assign(int vertex, int color)
+    {
+        push(-1 - vertex, domains[vertex]);
+        colors[vertex] = color;
+        domains[vertex] = 1L << color;
+        numAssigned++;
+
+        boolean consistent = removeFromNeighbors(vertex, 1L << color);
+        if (mode == Mode.ARC_CONSISTENCY)
+        {
+            consistent = propagateQueue(consistent);
+        }
+        return consistent;
+    }
+
+    /**
+     * Remove the color bit from every unassigned neighbor of vertex
+     * @return false if a neighbor's domain became empty
+     */
+    private boolean removeFromNeighbors(int vertex, long bit)
+    {
+        for (int i = offsets[vertex]; i < offsets[vertex + 1]; i++)
+        {
+            int neighbor = neighbors[i];
+            long domain = domains[neighbor];
+            if (colors[neighbor] != -1 || (domain & bit) == 0)
+            {
+                continue;
+            }
+            push(neighbor, domain);
+            domain &= ~bit;
+            domains[neighbor] = domain;
+            if (domain == 0)
+            {
+                return false;
+            }
+            if (mode == Mode.ARC_CONSISTENCY && (domain & (domain - 1)) == 0 && !queued[neighbor])
+            {
+                queued[neighbor] = true;
+                queue[queueSize++] = neighbor;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Remove the color of each queued single color vertex from its unassigned
+     * neighbors until the queue is empty. The queue is cleared either way
+     * @param consistent : false if the assignment already failed
+     * @return false if a domain became empty
+     */
+    private boolean propagateQueue(boolean consistent)
+    {
+        // vertices can only be queued once, so the queue never wraps
+        for (int head = 0; head < queueSize && consistent; head++)
+        {
+            int vertex = queue[head];
+            // it may have been assigned since it was queued
+            if (colors[vertex] == -1)
+            {
+                consistent = removeFromNeighbors(vertex, domains[vertex]);
+            }
+        }
+        for (int i = 0; i < queueSize; i++)
+        {
+            queued[queue[i]] = false;
+        }
+        queueSize = 0;
+        return consistent;
+    }
+
+    /**
+     * Minimum remaining values, ties broken by the higher degree
+     * @return an unassigned vertex, or -1 if every vertex is assigned
+     */
+    public int selectUnassigned()
+    {
+        if (numAssigned == numPoints)
+        {
+            return -1;
+        }
+        int best = -1;
+        int bestSize = Integer.MAX_VALUE;
+        int bestDegree = -1;
+        for (int v = 0; v < numPoints; v++)
+        {
+            if (colors[v] != -1)
+            {
+                continue;
+            }
+            int size = Long.bitCount(domains[v]);
+            int degree = offsets[v + 1] - offsets[v];
+            if (size < bestSize || (size == bestSize && degree > bestDegree))
+            {
+                best = v;
+                bestSize = size;
+                bestDegree = degree;
+            }
+        }
+        return best;
+    }
+
+    // <editor-fold defaultstate="collapsed" desc="Trail">
+    /**
+     * @return a mark to pass to undo() to restore the current state
+     */
+    public int mark()
+    {
+        return trailSize;
+    }
+
+    /**
+     * Restore every domain and assignment changed since the mark was taken
+     * @param mark : a value returned by mark()
+     */
+    public void undo(int mark)
+    {
+        while (trailSize > mark)
+        {
+            trailSize--;
+            int vertex = trailVertex[trailSize];
+            if (vertex < 0)
+            {
+                vertex = -1 - vertex;
+                colors[vertex] = -1;
+                numAssigned--;
+            }
+            domains[vertex] = trailDomain[trailSize];
+        }
+    }
+
+    private void push(int vertex, long domain)
+    {
+        if (trailSize == trailVertex.length)
+        {
+            trailVertex = Arrays.copyOf(trailVertex, trailSize * 2);
+            trailDomain = Arrays.copyOf(trailDomain, trailSize * 2);
+        }
+        trailVertex[trailSize] = vertex;
+        trailDomain[trailSize] = domain;
+        trailSize++;
+    }
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Basic Getters and Setters">
+    /**
+     * @param vertex
+     * @return the bitmask of colors vertex may still take
+     */
+    public long getDomain(int vertex)
+    {
+        return domains[vertex];
+    }
+
+    /**
+     * @return the highest color assigned through branch(), -1 if none
+     */
+    public int getHighestBranchColor()
+    {
+        return highestBranchColor;
+    }
+
+    /**
+     * @param vertex
+     * @return the color assigned to vertex, -1 if none
+     */
+    public int getColor(int vertex)
+    {
+        return colors[vertex];
+    }
+
+    /**
+     * @return the number of colors allowed
+     */
+    public int getMaxColors()
+    {
+        return maxColors;
+    }
+
+    /**
+     * @return the number of color assignments tried by backtrack()
+     */
+    public long getDecisions()
+    {
+        return decisions;
+    }
+    // </editor-fold>
+}
@@ -4,17 +4,27 @@ import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Statistical behavior analyzer. Interacts with a ConstraintSolver class and
  * provides metrics based on its number of decisions made, valid colorings,
- * vertices visited, and vertices recolored
+ * vertices visited, and vertices recolored.
  *
- * @version 09/19/16
+ * Every run, successful or not, is also recorded in histograms of wall clock
+ * time, decisions and allocated bytes for its solver and graph size. Their
+ * percentiles are added to the text report and written to CSV and JSON files
+ * beside it, since averages hide the few instances that take far longer than
+ * the rest.
+ *
+ * @version 10/18/26
  */
 public class ResultCalculator
 {
@@ -25,17 +35,22 @@ public class ResultCalculator
     private int initialNumVertices;
     private int vertexGrowthSize;
     
-    // A mapping of an algotihm to its integer array representing data from its run suite.
-    // Array index 0: Total decisions made (over entire run suite)
-    // Array index 1: Successful colorings (over entire run suite)
-    // Array index 2: Total times data was provided 
-    // Array index 3: Max decisions made
-    // Array index 4: Min decisions made
-    private Map<Class<?>, int[]> runValues = new HashMap<>();
+    // The data from the whole run suite, see Accumulator
+    private Accumulator runValues;
+    // Each thread records instance metrics into its own accumulator so run
+    // suite iterations can run in parallel without locking. They are merged
+    // into runValues before the results are printed
+    private volatile ThreadLocal<Accumulator> threadValues = ThreadLocal.withInitial(this::newAccumulator);
+    private final List<Accumulator> accumulators = new ArrayList<>();
     // the print writer for the final run output (not for logging)
-    private static PrintWriter result_data;
+    private PrintWriter result_data;
+    // the histogram CSV and JSON files are named after the results file
+    private final String histogramFileName;
     // the run is either an instance suite or run suite
     private String runType;
+    // most runs timed at the same time, the wall clock times of runs sharing
+    // the machine include waiting for each other
+    private int concurrentRuns = 1;
     
     public ResultCalculator(String fileName, int colors, int suiteIterations, int numGraphs, int initNumVertices, int vertexGrowth)
     {
@@ -44,7 +59,8 @@ public class ResultCalculator
         numberOfGraphs = numGraphs;
         initialNumVertices = initNumVertices;
         vertexGrowthSize = vertexGrowth;
-        
+        histogramFileName = (fileName.endsWith(".txt") ? fileName.substring(0, fileName.length() - 4) : fileName)
+                + "_histograms";
         
         try
         {
@@ -53,11 +69,38 @@ public class ResultCalculator
         {
             Logger.getLogger(ResultCalculator.class.getName()).log(Level.SEVERE, null, ex);
         }
-        for (Class<?> solverClass : Driver.solverList)
+        runValues = new Accumulator();
+    }
+    
+    /**
+     * Creates the calling thread's accumulator and registers it for merging
+     */
+    private Accumulator newAccumulator()
+    {
+        Accumulator values = new Accumulator();
+        synchronized (accumulators)
         {
-            // need min decisions to intiially be very large and max decisions be very small
-            runValues.put(solverClass, new int[]{0, 0, 0, Integer.MIN_VALUE, Integer.MAX_VALUE});
+            accumulators.add(values);
         }
+        return values;
+    }
+    
+    /**
+     * Fold every thread's accumulator into runValues. Must only be called once
+     * the threads recording metrics have finished
+     */
+    private void mergeAccumulators()
+    {
+        synchronized (accumulators)
+        {
+            for (Accumulator values : accumulators)
+            {
+                runValues.merge(values);
+            }
+            accumulators.clear();
+        }
+        // threads still holding a merged map must start a new one
+        threadValues = ThreadLocal.withInitial(this::newAccumulator);
     }
     
     /**
@@ -65,12 +108,17 @@ public class ResultCalculator
      */
     public void clearClassVariables()
     {
-        runValues.clear();
+        runValues = new Accumulator();
+        synchronized (accumulators)
+        {
+            accumulators.clear();
+        }
+        threadValues = ThreadLocal.withInitial(this::newAccumulator);
     }
 
     /**
      * Updates information for the result of one graph being run on one
-     * specific algorithm
+     * specific algorithm. Safe to call from several threads at once
      * Array index 0: Total successful decisions made (over entire run suite)
      * Array index 1: Successful colorings (over entire run suite)
      * Array index 2: Total times data was provided for satisfied graph
@@ -78,32 +126,37 @@ public class ResultCalculator
      * Array index 4: Min decisions made
      *
      * @param solver
+     * @return true if the solver's graph is validly colored
      */
-    public void calculateInstanceMetrics(ConstraintSolver solver)
+    public boolean calculateInstanceMetrics(ConstraintSolver solver)
     {
         boolean satisfiedConstraint = solver.isSatisfiesConstraint();
-        System.out.println("INSTANCE valid coloring: " + satisfiedConstraint);
+        
+        Accumulator accumulator = threadValues.get();
+        long[] values = accumulator.totals.get(solver.getClass());
+        accumulator.histogramsFor(solver.getClass(), solver.graph.getGraphSize()).record(solver, satisfiedConstraint);
         
         // only tally decisions made for the run if it satisfied the constraint
         if (satisfiedConstraint)
         {
             // only tally decisions made for the run if it satisfied the constraint
-            runValues.get(solver.getClass())[0] += solver.getDecisionsMade();
+            values[0] += solver.getDecisionsMade();
             // total successfull colorings +1 if satisfied
-            runValues.get(solver.getClass())[1] += 1;
+            values[1] += 1;
             // update max decisions if largest decision yet for successful coloring
-            if (solver.getDecisionsMade() > runValues.get(solver.getClass())[3])
+            if (solver.getDecisionsMade() > values[3])
             {
-                runValues.get(solver.getClass())[3] = solver.getDecisionsMade();
+                values[3] = solver.getDecisionsMade();
             }
             // update min decisions if smallest decision yet for successful coloring
-            if (solver.getDecisionsMade() < runValues.get(solver.getClass())[4])
+            if (solver.getDecisionsMade() < values[4])
             {
-                runValues.get(solver.getClass())[4] = solver.getDecisionsMade();
+                values[4] = solver.getDecisionsMade();
             }
         }
         // total times data provided + 1
-        runValues.get(solver.getClass())[2] += 1;
+        values[2] += 1;
+        return satisfiedConstraint;
     }
     
     /**
@@ -111,8 +164,11 @@ public class ResultCalculator
      */
     public void printRunResults()
     {
+        mergeAccumulators();
+        
         String formatHeader = "%-40s%-20s%-20s%-20s%-20s%n";
         String formatData = "%-5s%-35s%-20.2f%-20d%-20d%-20.6f%n";
+        String formatPercentiles = "%-5s%-35s%-10s%-10s%-36s%-36s%-36s%n";
         
         result_data.format("=== %s Results ===%n", "", runType);
         result_data.println("Run parameters: ");
@@ -120,9 +176,9 @@ public class ResultCalculator
                 maxColors, runSuiteIterations, numberOfGraphs, initialNumVertices, vertexGrowthSize);
         result_data.format(formatHeader, "Name of Algorithm", "Avg. Decisions", "Max Decisions", "Min Decisions", "Ratio of Successful Colorings");
         result_data.println("Successful Colorings: ");
-        for (Map.Entry<Class<?>, int[]> entry : runValues.entrySet())
+        for (Map.Entry<Class<?>, long[]> entry : runValues.totals.entrySet())
         {
-            int[] dataArray = entry.getValue();            
+            long[] dataArray = entry.getValue();            
             result_data.format(formatData, "",
                     entry.getKey().getSimpleName(), 
                     calculateAverageDecisions(dataArray), 
@@ -130,6 +186,95 @@ public class ResultCalculator
                     calculateMinDecisions(dataArray), 
                     calculateSuccessfulColorings(dataArray));
         }
+        
+        result_data.println();
+        result_data.println("All runs by graph size, p50 / p90 / p99 / max: ");
+        if (concurrentRuns > 1)
+        {
+            result_data.format("Up to %d runs were timed at once, so times include contention between them "
+                    + "and are not isolated latencies.%n", concurrentRuns);
+        }
+        result_data.println("Allocations are n/a for solvers that work on helper threads.");
+        result_data.format(formatPercentiles, "", "Name of Algorithm", "Size", "Solved", 
+                "Time (ms)", "Decisions", "Allocated (KB)");
+        for (Map.Entry<Class<?>, TreeMap<Integer, RunHistograms>> entry : runValues.histograms.entrySet())
+        {
+            for (Map.Entry<Integer, RunHistograms> size : entry.getValue().entrySet())
+            {
+                RunHistograms runs = size.getValue();
+                result_data.format(formatPercentiles, "",
+                        entry.getKey().getSimpleName(),
+                        size.getKey(),
+                        runs.solved + "/" + runs.wallNanos.getCount(),
+                        formatPercentiles(runs.wallNanos, 1e6),
+                        formatPercentiles(runs.decisions, 1),
+                        formatPercentiles(runs.allocatedBytes, 1024));
+            }
+        }
+        writeHistograms();
+    }
+    
+    /**
+     * @return the p50, p90, p99 and max of histogram divided by unit, or n/a
+     * if nothing was recorded
+     */
+    private static String formatPercentiles(Histogram histogram, double unit)
+    {
+        if (histogram.getCount() == 0)
+        {
+            return "n/a";
+        }
+        String format = unit == 1 ? "%.0f / %.0f / %.0f / %.0f" : "%.1f / %.1f / %.1f / %.1f";
+        return String.format(format, histogram.percentile(50) / unit, histogram.percentile(90) / unit,
+                histogram.percentile(99) / unit, histogram.getMax() / unit);
+    }
+    
+    /**
+     * Write every histogram's percentiles to a CSV file with one row per
+     * solver, graph size and metric, and to a JSON file with the same data
+     * grouped by solver and graph size
+     */
+    private void writeHistograms()
+    {
+        File directory = new File("Output_Files_Results_and_Logs");
+        try (PrintWriter csv = new PrintWriter(new FileWriter(new File(directory, histogramFileName + ".csv")));
+                PrintWriter json = new PrintWriter(new FileWriter(new File(directory, histogramFileName + ".json"))))
+        {
+            csv.println("solver,graph_size,metric,runs,solved,p50,p90,p99,max,mean");
+            json.format("{%n  \"runType\": \"%s\",%n  \"maxColors\": %d,%n  \"concurrentRuns\": %d,%n  \"runs\": [",
+                    runType, maxColors, concurrentRuns);
+            String separator = "";
+            for (Map.Entry<Class<?>, TreeMap<Integer, RunHistograms>> entry : runValues.histograms.entrySet())
+            {
+                String solverName = entry.getKey().getSimpleName();
+                for (Map.Entry<Integer, RunHistograms> size : entry.getValue().entrySet())
+                {
+                    RunHistograms runs = size.getValue();
+                    json.format("%s%n    {\"solver\": \"%s\", \"graphSize\": %d, \"runs\": %d, \"solved\": %d",
+                            separator, solverName, size.getKey(), runs.wallNanos.getCount(), runs.solved);
+                    String[] metrics = {"wall_nanos", "decisions", "allocated_bytes"};
+                    String[] jsonMetrics = {"wallNanos", "decisions", "allocatedBytes"};
+                    Histogram[] histograms = {runs.wallNanos, runs.decisions, runs.allocatedBytes};
+                    for (int i = 0; i < metrics.length; i++)
+                    {
+                        Histogram histogram = histograms[i];
+                        // Locale.ROOT keeps the decimal point a point in both files
+                        csv.format(Locale.ROOT, "%s,%d,%s,%d,%d,%d,%d,%d,%d,%.2f%n", solverName, size.getKey(), metrics[i],
+                                histogram.getCount(), runs.solved, histogram.percentile(50), histogram.percentile(90),
+                                histogram.percentile(99), histogram.getMax(), histogram.getMean());
+                        json.format(Locale.ROOT, ", \"%s\": {\"p50\": %d, \"p90\": %d, \"p99\": %d, \"max\": %d, \"mean\": %.2f}",
+                                jsonMetrics[i], histogram.percentile(50), histogram.percentile(90), 
+                                histogram.percentile(99), histogram.getMax(), histogram.getMean());
+                    }
+                    json.print("}");
+                    separator = ",";
+                }
+            }
+            json.format("%n  ]%n}%n");
+        } catch (IOException ex)
+        {
+            Logger.getLogger(ResultCalculator.class.getName()).log(Level.SEVERE, null, ex);
+        }
     }
 
     /**
@@ -143,7 +288,7 @@ public class ResultCalculator
      * @param indexOfInterest 
      * @return 
      */
-    private double calculateAverageDecisions(int[] inputData)
+    private double calculateAverageDecisions(long[] inputData)
     {
         double val;
         if (inputData[1] == 0)
@@ -161,7 +306,7 @@ public class ResultCalculator
         return val;
     }
     
-    private double calculateSuccessfulColorings(int[] inputData)
+    private double calculateSuccessfulColorings(long[] inputData)
     {
         double val;
         if (inputData[1] == 0)
@@ -179,9 +324,9 @@ public class ResultCalculator
         return val;
     }
     
-    private int calculateMaxDecisions(int[] inputData)
+    private long calculateMaxDecisions(long[] inputData)
     {
-        if (inputData[3] == Integer.MIN_VALUE)
+        if (inputData[3] == Long.MIN_VALUE)
         {
             return -1;
         }
@@ -191,9 +336,9 @@ public class ResultCalculator
         }
     }
     
-    private int calculateMinDecisions(int[] inputData)
+    private long calculateMinDecisions(long[] inputData)
     {
-        if (inputData[4] == Integer.MAX_VALUE)
+        if (inputData[4] == Long.MAX_VALUE)
         {
             return -1;
         }
@@ -219,9 +364,107 @@ public class ResultCalculator
         this.runType = runType;
     }
     
+    /**
+     * @param concurrentRuns : the most runs timed at the same time, noted
+     * with the wall clock percentiles
+     */
+    public void setConcurrentRuns(int concurrentRuns) 
+    {
+        this.concurrentRuns = concurrentRuns;
+    }
+    
  
     public void closeWriter() 
     {
         result_data.close(); 
     }
+    
+    // <editor-fold defaultstate="collapsed" desc="Accumulated run data">
+    /**
+     * Run data for every solver in the Driver.
+     * totals maps an algorithm to its array of data from its run suite:
+     * Array index 0: Total decisions made (over entire run suite)
+     * Array index 1: Successful colorings (over entire run suite)
+     * Array index 2: Total times data was provided 
+     * Array index 3: Max decisions made
+     * Array index 4: Min decisions made
+     * histograms holds every run of an algorithm by graph size
+     */
+    private static class Accumulator
+    {
+        private final Map<Class<?>, long[]> totals = new HashMap<>();
+        private final Map<Class<?>, TreeMap<Integer, RunHistograms>> histograms = new HashMap<>();
+        
+        Accumulator()
+        {
+            for (Class<?> solverClass : Driver.solverList)
+            {
+                // need min decisions to intiially be very large and max decisions be very small
+                totals.put(solverClass, new long[]{0, 0, 0, Long.MIN_VALUE, Long.MAX_VALUE});
+            }
+        }
+        
+        RunHistograms histogramsFor(Class<?> solverClass, int graphSize)
+        {
+            return histograms.computeIfAbsent(solverClass, key -> new TreeMap<>())
+                    .computeIfAbsent(graphSize, key -> new RunHistograms());
+        }
+        
+        void merge(Accumulator other)
+        {
+            for (Map.Entry<Class<?>, long[]> entry : other.totals.entrySet())
+            {
+                long[] total = totals.get(entry.getKey());
+                long[] part = entry.getValue();
+                total[0] += part[0];
+                total[1] += part[1];
+                total[2] += part[2];
+                total[3] = Math.max(total[3], part[3]);
+                total[4] = Math.min(total[4], part[4]);
+            }
+            for (Map.Entry<Class<?>, TreeMap<Integer, RunHistograms>> entry : other.histograms.entrySet())
+            {
+                for (Map.Entry<Integer, RunHistograms> size : entry.getValue().entrySet())
+                {
+                    histogramsFor(entry.getKey(), size.getKey()).merge(size.getValue());
+                }
+            }
+        }
+    }
+    
+    /**
+     * Wall clock time, decisions and allocated bytes of the runs of one
+     * solver on one graph size
+     */
+    private static class RunHistograms
+    {
+        private final Histogram wallNanos = new Histogram();
+        private final Histogram decisions = new Histogram();
+        private final Histogram allocatedBytes = new Histogram();
+        private long solved = 0;
+        
+        void record(ConstraintSolver solver, boolean satisfiedConstraint)
+        {
+            wallNanos.record(solver.getElapsedNanos());
+            decisions.record(solver.getDecisionsMade());
+            // -1 means the JVM did not report it, a 0 would drag the percentiles down
+            if (solver.getAllocatedBytes() >= 0)
+            {
+                allocatedBytes.record(solver.getAllocatedBytes());
+            }
+            if (satisfiedConstraint)
+            {
+                solved++;
+            }
+        }
+        
+        void merge(RunHistograms other)
+        {
+            wallNanos.merge(other.wallNanos);
+            decisions.merge(other.decisions);
+            allocatedBytes.merge(other.allocatedBytes);
+            solved += other.solved;
+        }
+    }
+    // </editor-fold>
 }
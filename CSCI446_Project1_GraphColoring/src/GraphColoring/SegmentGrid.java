@@ -0,0 +1,226 @@
+package GraphColoring;
+
+import java.util.Arrays;
+
+/**
+ * Incremental index of the edges (line segments) placed on the unit square.
+ * Each segment is listed in every grid cell its bounding box touches, so a
+ * new segment only has to be tested against segments sharing a cell with it
+ * instead of every edge in the graph.
+ *
+ * The generator passes the points in z-order (Graph_Generator's
+ * orderPointsSpatially()), so nearby vertices have nearby numbers, but the
+ * segments of one cell still reach outside it and are scattered through
+ * the edge list. Each cell keeps its own copy of the endpoints and
+ * coordinates of its segments, so a cell scan reads one block of memory in
+ * order instead of jumping around the vertex arrays.
+ *
+ * @version 10/18/26
+ */
+public class SegmentGrid
+{
+    // average number of points the grid is sized to put in each cell
+    private static final int pointsPerCell = 2;
+    // orientation values this close to 0 are treated as collinear
+    private static final double epsilon = 1e-12;
+
+    private final double[] xValues;
+    private final double[] yValues;
+    private final int cellsPerSide;
+
+    // cellEndpoints[c] holds 2 vertex numbers for each of the cellCount[c]
+    // segments listed in cell c, cellCoordinates[c] holds their x1, y1, x2, y2
+    private final int[][] cellEndpoints;
+    private final double[][] cellCoordinates;
+    private final int[] cellCount;
+
+    /**
+     * @param xValues : x value of each point between [0,1]
+     * @param yValues : y value of each point between [0,1]
+     */
+    public SegmentGrid(double[] xValues, double[] yValues)
+    {
+        this.xValues = xValues;
+        this.yValues = yValues;
+        cellsPerSide = Math.max(1, (int) Math.ceil(Math.sqrt((double) xValues.length / pointsPerCell)));
+        cellEndpoints = new int[cellsPerSide * cellsPerSide][];
+        cellCoordinates = new double[cellsPerSide * cellsPerSide][];
+        cellCount = new int[cellsPerSide * cellsPerSide];
+    }
+
+    /**
+     * Add the segment between two points to the index
+     * @param point1
+     * @param point2
+     */
+    public void addSegment(int point1, int point2)
+    {
+        double x1 = xValues[point1];
+        double y1 = yValues[point1];
+        double x2 = xValues[point2];
+        double y2 = yValues[point2];
+        int maxX = column(Math.max(x1, x2));
+        int maxY = column(Math.max(y1, y2));
+
+        for (int gy = column(Math.min(y1, y2)); gy <= maxY; gy++)
+        {
+            for (int gx = column(Math.min(x1, x2)); gx <= maxX; gx++)
+            {
+                int cell = gy * cellsPerSide + gx;
+                int count = cellCount[cell];
+                if (cellEndpoints[cell] == null)
+                {
+                    cellEndpoints[cell] = new int[8];
+                    cellCoordinates[cell] = new double[16];
+                }
+                else if (2 * count == cellEndpoints[cell].length)
+                {
+                    cellEndpoints[cell] = Arrays.copyOf(cellEndpoints[cell], count * 4);
+                    cellCoordinates[cell] = Arrays.copyOf(cellCoordinates[cell], count * 8);
+                }
+                cellEndpoints[cell][2 * count] = point1;
+                cellEndpoints[cell][2 * count + 1] = point2;
+                double[] coordinates = cellCoordinates[cell];
+                coordinates[4 * count] = x1;
+                coordinates[4 * count + 1] = y1;
+                coordinates[4 * count + 2] = x2;
+                coordinates[4 * count + 3] = y2;
+                cellCount[cell] = count + 1;
+            }
+        }
+    }
+
+    /**
+     * Check whether the segment between two points would cross any segment
+     * already in the index. Segments that only share an endpoint do not
+     * cross, unless they overlap along the same line.
+     * @param point1
+     * @param point2
+     * @return true if a crossing was found
+     */
+    public boolean crossesAny(int point1, int point2)
+    {
+        double ax = xValues[point1];
+        double ay = yValues[point1];
+        double bx = xValues[point2];
+        double by = yValues[point2];
+        double boundMinX = Math.min(ax, bx);
+        double boundMinY = Math.min(ay, by);
+        double boundMaxX = Math.max(ax, bx);
+        double boundMaxY = Math.max(ay, by);
+        int maxX = column(boundMaxX);
+        int maxY = column(boundMaxY);
+
+        for (int gy = column(boundMinY); gy <= maxY; gy++)
+        {
+            for (int gx = column(boundMinX); gx <= maxX; gx++)
+            {
+                int cell = gy * cellsPerSide + gx;
+                int[] endpoints = cellEndpoints[cell];
+                double[] coordinates = cellCoordinates[cell];
+                for (int i = 0; i < cellCount[cell]; i++)
+                {
+                    double cx = coordinates[4 * i];
+                    double cy = coordinates[4 * i + 1];
+                    double dx = coordinates[4 * i + 2];
+                    double dy = coordinates[4 * i + 3];
+                    // segments whose bounding boxes do not overlap cannot meet
+                    if ((cx > boundMaxX && dx > boundMaxX) || (cx < boundMinX && dx < boundMinX)
+                            || (cy > boundMaxY && dy > boundMaxY) || (cy < boundMinY && dy < boundMinY))
+                    {
+                        continue;
+                    }
+                    int c = endpoints[2 * i];
+                    int d = endpoints[2 * i + 1];
+                    boolean crosses;
+                    // edges that share an endpoint only meet there unless they
+                    // are collinear and the other endpoint lies on the opposite one
+                    if (c == point1 || d == point1)
+                    {
+                        crosses = c == point1 ? sharedOverlap(ax, ay, bx, by, dx, dy) : sharedOverlap(ax, ay, bx, by, cx, cy);
+                    }
+                    else if (c == point2 || d == point2)
+                    {
+                        crosses = c == point2 ? sharedOverlap(bx, by, ax, ay, dx, dy) : sharedOverlap(bx, by, ax, ay, cx, cy);
+                    }
+                    else
+                    {
+                        crosses = segmentsCross(ax, ay, bx, by, cx, cy, dx, dy);
+                    }
+                    if (crosses)
+                    {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Orientation based segment test, exact up to epsilon
+     * @return true if segment a-b crosses or touches segment c-d
+     */
+    private boolean segmentsCross(double ax, double ay, double bx, double by,
+            double cx, double cy, double dx, double dy)
+    {
+        int o1 = orientation(ax, ay, bx, by, cx, cy);
+        int o2 = orientation(ax, ay, bx, by, dx, dy);
+        int o3 = orientation(cx, cy, dx, dy, ax, ay);
+        int o4 = orientation(cx, cy, dx, dy, bx, by);
+
+        if (o1 != o2 && o3 != o4 && o1 != 0 && o2 != 0 && o3 != 0 && o4 != 0)
+        {
+            return true;
+        }
+        // a point of one segment lying on the other one
+        return (o1 == 0 && within(ax, ay, bx, by, cx, cy)) || (o2 == 0 && within(ax, ay, bx, by, dx, dy))
+                || (o3 == 0 && within(cx, cy, dx, dy, ax, ay)) || (o4 == 0 && within(cx, cy, dx, dy, bx, by));
+    }
+
+    /**
+     * Two segments s-b and s-d that share the endpoint s overlap if they are
+     * collinear and either far endpoint lies on the other segment
+     */
+    private boolean sharedOverlap(double sx, double sy, double bx, double by, double dx, double dy)
+    {
+        if (orientation(sx, sy, bx, by, dx, dy) != 0)
+        {
+            return false;
+        }
+        boolean dOnB = within(sx, sy, bx, by, dx, dy) && (dx != sx || dy != sy);
+        boolean bOnD = within(sx, sy, dx, dy, bx, by) && (bx != sx || by != sy);
+        return dOnB || bOnD;
+    }
+
+    /**
+     * @return 1 for counter clockwise, -1 for clockwise, 0 for collinear
+     */
+    private int orientation(double ax, double ay, double bx, double by, double cx, double cy)
+    {
+        double value = (bx - ax) * (cy - ay) - (by - ay) * (cx - ax);
+        if (value > epsilon)
+        {
+            return 1;
+        }
+        if (value < -epsilon)
+        {
+            return -1;
+        }
+        return 0;
+    }
+
+    /**
+     * @return true if point p lies within the bounding box of segment a-b
+     */
+    private boolean within(double ax, double ay, double bx, double by, double px, double py)
+    {
+        return px >= Math.min(ax, bx) && px <= Math.max(ax, bx)
+                && py >= Math.min(ay, by) && py <= Math.max(ay, by);
+    }
+
+    private int column(double value)
+    {
+        return Math.min((int) (value * cellsPerSide), cellsPerSide - 1);
+    }
+}
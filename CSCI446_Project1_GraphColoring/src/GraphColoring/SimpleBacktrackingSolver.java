@@ -21,10 +21,14 @@ public class SimpleBacktrackingSolver extends ConstraintSolver {
         
         numPoints = graph.getGraphSize();
         decisionsMade = 0;
-       backtrack(0);                                                            addDecision();
+        if (!refutedByClique()) {
+            backtrack(0);                                                       addDecision();
+        }
         
         runs.print("\nRun finished.");
-        graph.printGraph();
+        if (TraceLog.isEnabled(TraceLog.Level.DEBUG)) {
+            graph.printGraph();
+        }
         
         runs.println("=== Program Output Values ===");
         runs.format("Valid Coloring: %b, with %d out of %d nodes correctly colored.%n",
@@ -41,11 +45,13 @@ public class SimpleBacktrackingSolver extends ConstraintSolver {
     private boolean backtrack(int point) {
         //iterate through all possible colors
         for (int color = 0; color < maxColors; color++) {           
+            if (outOfBudget()) {
+                break;
+            }
             theGraph.get(point).color = color;                                  addDecision();
-            runs.format("Node %d given color %d%n", point, color);
+            TraceLog.event(TraceLog.Level.TRACE, TraceLog.Event.ASSIGN, point, color);
             if (pointSatisfiesConstraint(point)) {                              addDecision();
                 if (allAdjacentColored(point)) {                                addDecision();
-                    runs.println("All surrounding nodes colored.");
                     return true;                                                
                 } else {
                     //iterate through all edges 
@@ -55,7 +61,6 @@ public class SimpleBacktrackingSolver extends ConstraintSolver {
                                 && theGraph.get(i).color == -1) {               addDecision();
                             //return true if end found else re color current node
                             if (backtrack(i) && allNodesColored()) {            addDecision();
-                                runs.println("Solution found");
                                 return true;
                             } else {
                                 break;
@@ -64,7 +69,7 @@ public class SimpleBacktrackingSolver extends ConstraintSolver {
                     }
                 }
             }
-            runs.println("Backtracking...\n");
+            TraceLog.event(TraceLog.Level.TRACE, TraceLog.Event.BACKTRACK, point, color);
         }
         theGraph.get(point).color = -1;
         return false;
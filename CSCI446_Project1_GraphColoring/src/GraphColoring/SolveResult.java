@@ -0,0 +1,87 @@
+package GraphColoring;
+
+/**
+ * Outcome of one ConstraintSolver.solve() call: the status, the best coloring
+ * the solver had when it stopped and what the run cost
+ *
+ * @version 10/18/26
+ */
+public class SolveResult
+{
+    private final SolveStatus status;
+    private final int[] colors;
+    private final int fitness;
+    private final long decisionsMade;
+    private final long elapsedNanos;
+    private final long allocatedBytes;
+
+    /**
+     * @param status : how the run ended
+     * @param colors : color of each vertex, -1 where none was given
+     * @param fitness : number of vertices not in conflict
+     * @param decisionsMade : decisions the solver made
+     * @param elapsedNanos : wall clock time of the run
+     * @param allocatedBytes : bytes allocated on the calling thread, -1 if unknown
+     */
+    public SolveResult(SolveStatus status, int[] colors, int fitness, long decisionsMade, long elapsedNanos,
+            long allocatedBytes)
+    {
+        this.status = status;
+        this.colors = colors;
+        this.fitness = fitness;
+        this.decisionsMade = decisionsMade;
+        this.elapsedNanos = elapsedNanos;
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    // <editor-fold defaultstate="collapsed" desc="Basic Getters and Setters">
+    /**
+     * @return how the run ended
+     */
+    public SolveStatus getStatus()
+    {
+        return status;
+    }
+
+    /**
+     * @return the coloring, indexed by vertex key. A copy owned by this result
+     */
+    public int[] getColors()
+    {
+        return colors;
+    }
+
+    /**
+     * @return the number of vertices not in conflict
+     */
+    public int getFitness()
+    {
+        return fitness;
+    }
+
+    /**
+     * @return the decisions the solver made
+     */
+    public long getDecisionsMade()
+    {
+        return decisionsMade;
+    }
+
+    /**
+     * @return wall clock nanoseconds the run took
+     */
+    public long getElapsedNanos()
+    {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return bytes the run allocated on its calling thread, -1 if the JVM
+     * does not report allocations
+     */
+    public long getAllocatedBytes()
+    {
+        return allocatedBytes;
+    }
+    // </editor-fold>
+}
@@ -0,0 +1,17 @@
+package GraphColoring;
+
+/**
+ * How a call to ConstraintSolver.solve() ended
+ *
+ * @version 10/18/26
+ */
+public enum SolveStatus
+{
+    // every vertex has a color and no edge joins two vertices of the same color
+    SOLVED,
+    // the solver stopped at the deadline, the decision budget, its own
+    // iteration cap or a cancel() before finding a coloring
+    TIMED_OUT,
+    // the solver proved no coloring with maxColors colors exists
+    PROVEN_UNSAT
+}
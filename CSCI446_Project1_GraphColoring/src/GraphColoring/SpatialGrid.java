@@ -0,0 +1,164 @@
+package GraphColoring;
+
+/**
+ * Uniform grid index over points on the unit square. Each cell holds about
+ * two points, so finding the k nearest points to a query only has to look
+ * at the few rings of cells around it instead of every point.
+ *
+ * @version 10/18/26
+ */
+public class SpatialGrid
+{
+    // average number of points the grid is sized to put in each cell
+    private static final int pointsPerCell = 2;
+
+    private final double[] xValues;
+    private final double[] yValues;
+    // number of cells along each side of the unit square
+    private final int cellsPerSide;
+    private final double cellSize;
+    // cellStart[c] is the index in cellPoints where cell c's points start
+    private final int[] cellStart;
+    private final int[] cellPoints;
+    // coordinates copied into cell order so a cell scan reads memory in order
+    private final double[] cellX;
+    private final double[] cellY;
+
+    /**
+     * Bucket every point into its grid cell
+     * @param xValues : x value of each point between [0,1]
+     * @param yValues : y value of each point between [0,1]
+     */
+    public SpatialGrid(double[] xValues, double[] yValues)
+    {
+        this.xValues = xValues;
+        this.yValues = yValues;
+        int n = xValues.length;
+
+        cellsPerSide = Math.max(1, (int) Math.ceil(Math.sqrt((double) n / pointsPerCell)));
+        cellSize = 1.0 / cellsPerSide;
+        int numCells = cellsPerSide * cellsPerSide;
+
+        // counting sort of the points by cell
+        cellStart = new int[numCells + 1];
+        int[] pointCell = new int[n];
+        for (int i = 0; i < n; i++)
+        {
+            pointCell[i] = cellOf(xValues[i], yValues[i]);
+            cellStart[pointCell[i] + 1]++;
+        }
+        for (int c = 0; c < numCells; c++)
+        {
+            cellStart[c + 1] += cellStart[c];
+        }
+        cellPoints = new int[n];
+        int[] next = new int[numCells];
+        System.arraycopy(cellStart, 0, next, 0, numCells);
+        cellX = new double[n];
+        cellY = new double[n];
+        for (int i = 0; i < n; i++)
+        {
+            int index = next[pointCell[i]]++;
+            cellPoints[index] = i;
+            cellX[index] = xValues[i];
+            cellY[index] = yValues[i];
+        }
+    }
+
+    /**
+     * Find the k closest points to the given point, ordered from closest to
+     * furthest. Ties are broken by the lower point number. The point itself
+     * and any point at the exact same location are never returned.
+     * @param point : the query point number
+     * @param k : the most points to return
+     * @param out : filled with the point numbers found, length at least k
+     * @return how many points were placed in out
+     */
+    public int nearest(int point, int k, int[] out)
+    {
+        double px = xValues[point];
+        double py = yValues[point];
+        int cx = column(px);
+        int cy = column(py);
+        double[] outDistances = new double[k];
+        int found = 0;
+
+        for (int ring = 0; ring < cellsPerSide; ring++)
+        {
+            // visit every cell whose Chebyshev distance from (cx, cy) is ring
+            for (int gy = cy - ring; gy <= cy + ring; gy++)
+            {
+                if (gy < 0 || gy >= cellsPerSide)
+                {
+                    continue;
+                }
+                boolean edgeRow = gy == cy - ring || gy == cy + ring;
+                int step = edgeRow ? 1 : 2 * ring;
+                for (int gx = cx - ring; gx <= cx + ring; gx += step)
+                {
+                    if (gx < 0 || gx >= cellsPerSide)
+                    {
+                        continue;
+                    }
+                    int cell = gy * cellsPerSide + gx;
+                    for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++)
+                    {
+                        double dx = cellX[i] - px;
+                        double dy = cellY[i] - py;
+                        double dist = dx * dx + dy * dy;
+                        if (dist == 0)
+                        {
+                            continue;
+                        }
+                        found = insertSorted(out, outDistances, found, k, cellPoints[i], dist);
+                    }
+                }
+            }
+
+            // every point in the next ring is at least ring * cellSize away
+            double reach = ring * cellSize;
+            if (found == k && outDistances[k - 1] <= reach * reach)
+            {
+                break;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Insertion step of a bounded sorted list ordered by (distance, point)
+     * @return the new number of entries in the list
+     */
+    private int insertSorted(int[] points, double[] distances, int size, int k, int candidate, double dist)
+    {
+        if (size == k && !closer(dist, candidate, distances[k - 1], points[k - 1]))
+        {
+            return size;
+        }
+        int i = size < k ? size : k - 1;
+        while (i > 0 && closer(dist, candidate, distances[i - 1], points[i - 1]))
+        {
+            points[i] = points[i - 1];
+            distances[i] = distances[i - 1];
+            i--;
+        }
+        points[i] = candidate;
+        distances[i] = dist;
+        return size < k ? size + 1 : size;
+    }
+
+    private boolean closer(double dist1, int point1, double dist2, int point2)
+    {
+        return dist1 < dist2 || (dist1 == dist2 && point1 < point2);
+    }
+
+    private int cellOf(double x, double y)
+    {
+        return column(y) * cellsPerSide + column(x);
+    }
+
+    private int column(double value)
+    {
+        return Math.min((int) (value * cellsPerSide), cellsPerSide - 1);
+    }
+}
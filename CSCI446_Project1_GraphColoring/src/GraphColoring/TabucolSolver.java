@@ -0,0 +1,457 @@
+package GraphColoring;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Graph coloring constraint solver using Tabucol (Hertz and de Werra, with
+ * the tenure of Galinier and Hao), a tabu search over complete colorings
+ * that minimizes the number of edges whose ends share a color.
+ *
+ * Each iteration moves one conflicted vertex to the color that lowers the
+ * number of conflicting edges the most, even when no move lowers it. The
+ * color a vertex leaves is tabu for it for a number of iterations that grows
+ * with the number of conflicted vertices, so the search can not undo the
+ * move right away and walks off plateaus and out of local minima. A tabu
+ * move is still taken if it reaches fewer conflicts than ever seen
+ * (aspiration).
+ *
+ * Works on the CSR graph with primitive tables: gamma[v * k + c] counts the
+ * neighbors of v colored c, so the change in conflicts of any move is read
+ * in O(1), and tabuUntil[v * k + c] is the iteration v may take c again.
+ * The moves of the conflicted vertices are kept in one bucket per change in
+ * conflicts. A move only changes gamma rows of the moved vertex's neighbors,
+ * so only their moves are rebucketed, and the best move is drawn at random
+ * from the lowest bucket holding one that is allowed. An iteration costs
+ * O(degree * k) rather than a scan of every conflicted vertex, which is what
+ * makes graphs of 10^5 vertices practical.
+ *
+ * @version 10/18/26
+ */
+public class TabucolSolver extends ConstraintSolver
+{
+    // most moves to try before giving up
+    private final int maxIterations = 1000000;
+    // tabu tenure is a random number below tenureRandom plus tenureFactor
+    // times the number of conflicted vertices. Galinier and Hao use 0.6, but
+    // on large sparse graphs the conflicts sit in many separate spots that
+    // each only see a share of the tenure, and 0.6 leaves them stuck
+    private final int tenureRandom = 10;
+    private final double tenureFactor = 2.0;
+    // random draws from a bucket before it is scanned for an allowed move
+    private final int sampleDraws = 8;
+    // iterations between progress events in the trace log
+    private final int stepPrintMod = 100000;
+
+    private final SplittableRandom rand = new SplittableRandom();
+    private int numPoints;
+    private int[] offsets;
+    private int[] neighbors;
+    private int[] colors;
+
+    // gamma[v * maxColors + c] is how many neighbors of v have color c
+    private int[] gamma;
+    // tabuUntil[v * maxColors + c] is the first iteration v may move to c
+    private int[] tabuUntil;
+    // edges whose ends share a color
+    private int conflictEdges;
+    // the vertices in conflict are conflicted[0 .. numConflicted - 1].
+    // conflictIndex[v] is v's position in conflicted, or -1 if v has no conflict
+    private int[] conflicted;
+    private int[] conflictIndex;
+    private int numConflicted;
+    // the moves (v, c), stored as v * maxColors + c, whose change in
+    // conflicting edges is delta are buckets[delta + maxDegree][0 ..
+    // bucketSize[delta + maxDegree] - 1]. movePosition[move] is the move's
+    // index in its bucket, -1 if it is in none, and moveBucket[move] the bucket
+    private int maxDegree;
+    private int[][] buckets;
+    private int[] bucketSize;
+    private int[] movePosition;
+    private int[] moveBucket;
+    // the coloring with the fewest conflicting edges seen so far. It is only
+    // copied out when a move leaves it, bestSaved is false while the current
+    // coloring is that best
+    private int[] bestColoring;
+    private int bestConflictEdges;
+    private boolean bestSaved;
+
+    public TabucolSolver()
+    {
+
+    }
+
+    /**
+     * Tabucol as the local search step of another solver, run through
+     * improve() (see MemeticSolver)
+     * @param graph : the graph the colorings passed to improve() are for
+     * @param maxColors : number of colors allowed
+     * @param parent : the solver using this one, when it is cancelled this
+     * one stops too
+     */
+    TabucolSolver(CompactGraph graph, int maxColors, ConstraintSolver parent)
+    {
+        compactGraph = graph;
+        this.maxColors = maxColors;
+        setParent(parent);
+        allocate(new int[graph.getNumVertices()]);
+    }
+
+    @Override
+    public void runSolver()
+    {
+        decisionsMade = 0;
+
+        runs.println("Tunable parameter settings:");
+        runs.println("Number of allowed iterations: " + maxIterations);
+        runs.println("Tabu tenure: random below " + tenureRandom + " plus " + tenureFactor + " per conflicted node");
+        runs.println();
+
+        allocate(compactGraph.colors);
+        greedyColoring();
+        load();
+        runs.format("Greedy assignment left %d conflicting edges.%n", conflictEdges);
+
+        int iterations = search(maxIterations);
+        boolean validColoring = conflictEdges == 0;
+        compactGraph.writeColorsTo(graph);
+
+        runs.println();
+        runs.println("=== Program Output Values ===");
+        runs.format("Valid Coloring: %b, with %d out of %d nodes correctly colored.%n",
+                validColoring, compactGraph.calculateFitness(), numPoints);
+        runs.format("Iterations: %d, conflicting edges left: %d%n", iterations, conflictEdges);
+        runs.format("Decisions Made: %d%n", decisionsMade);
+    }
+
+    /**
+     * Run at most iterationLimit moves starting from a complete coloring
+     * @param colorings : holds the coloring, which is replaced by the best
+     * coloring the search found
+     * @param offset : index in colorings of vertex 0's color
+     * @param iterationLimit : most moves to make
+     * @return the conflicting edges left in the returned coloring
+     */
+    int improve(int[] colorings, int offset, int iterationLimit)
+    {
+        System.arraycopy(colorings, offset, colors, 0, numPoints);
+        load();
+        search(iterationLimit);
+        System.arraycopy(colors, 0, colorings, offset, numPoints);
+        return conflictEdges;
+    }
+
+    /**
+     * Move conflicted vertices until no edge conflicts, the limit is reached
+     * or the solver is stopped, then go back to the best coloring seen
+     * @param iterationLimit : most moves to make
+     * @return the number of moves made
+     */
+    private int search(int iterationLimit)
+    {
+        int iteration = 0;
+        while (conflictEdges > 0 && iteration < iterationLimit && !outOfBudget())
+        {
+            if (iteration % stepPrintMod == 0)
+            {
+                TraceLog.event(TraceLog.Level.INFO, TraceLog.Event.STEP, iteration, conflictEdges);
+            }
+            long move = bestMove(iteration);
+            int vertex = (int) (move >>> 32);
+            int color = (int) move;
+            int oldColor = colors[vertex];
+
+            recolor(vertex, color);
+            tabuUntil[vertex * maxColors + oldColor] = iteration + rand.nextInt(tenureRandom)
+                    + (int) (tenureFactor * numConflicted);
+            TraceLog.event(TraceLog.Level.TRACE, TraceLog.Event.RECOLOR, vertex, color);
+            trackBest(vertex, oldColor);
+            decisionsMade++;
+            iteration++;
+        }
+        if (bestSaved && conflictEdges > bestConflictEdges)
+        {
+            // stopped early, hand back the best coloring instead of the last
+            System.arraycopy(bestColoring, 0, colors, 0, numPoints);
+            conflictEdges = bestConflictEdges;
+        }
+        return iteration;
+    }
+
+    /**
+     * Create the tables for compactGraph and maxColors
+     * @param colors : the array the search colors, one entry per vertex
+     */
+    private void allocate(int[] colors)
+    {
+        numPoints = compactGraph.getNumVertices();
+        offsets = compactGraph.offsets;
+        neighbors = compactGraph.neighbors;
+        this.colors = colors;
+
+        gamma = new int[numPoints * maxColors];
+        tabuUntil = new int[numPoints * maxColors];
+        conflicted = new int[numPoints];
+        conflictIndex = new int[numPoints];
+        maxDegree = 0;
+        for (int v = 0; v < numPoints; v++)
+        {
+            maxDegree = Math.max(maxDegree, compactGraph.degree(v));
+        }
+        buckets = new int[2 * maxDegree + 1][];
+        for (int b = 0; b < buckets.length; b++)
+        {
+            buckets[b] = new int[16];
+        }
+        bucketSize = new int[buckets.length];
+        movePosition = new int[numPoints * maxColors];
+        moveBucket = new int[numPoints * maxColors];
+        bestColoring = new int[numPoints];
+    }
+
+    /**
+     * Color every vertex with the color least used by its already colored
+     * neighbors. Like MinConflictsSolver's start this is a single linear pass
+     * the search needs, so it is not counted as decisions
+     */
+    private void greedyColoring()
+    {
+        Arrays.fill(gamma, 0);
+        for (int v = 0; v < numPoints; v++)
+        {
+            // the table only counts colored neighbors at this point
+            int row = v * maxColors;
+            int color = 0;
+            for (int c = 1; c < maxColors; c++)
+            {
+                if (gamma[row + c] < gamma[row + color])
+                {
+                    color = c;
+                }
+            }
+            colors[v] = color;
+            for (int i = offsets[v]; i < offsets[v + 1]; i++)
+            {
+                gamma[neighbors[i] * maxColors + color]++;
+            }
+        }
+    }
+
+    /**
+     * Build the gamma table, conflict set and move buckets for the complete
+     * coloring in colors, with no move tabu
+     */
+    private void load()
+    {
+        Arrays.fill(gamma, 0);
+        Arrays.fill(tabuUntil, 0);
+        Arrays.fill(bucketSize, 0);
+        Arrays.fill(movePosition, -1);
+        for (int v = 0; v < numPoints; v++)
+        {
+            for (int i = offsets[v]; i < offsets[v + 1]; i++)
+            {
+                gamma[neighbors[i] * maxColors + colors[v]]++;
+            }
+        }
+        conflictEdges = 0;
+        numConflicted = 0;
+        for (int v = 0; v < numPoints; v++)
+        {
+            // every conflicting edge is seen from both ends
+            conflictEdges += gamma[v * maxColors + colors[v]];
+            conflictIndex[v] = -1;
+            updateConflictSet(v);
+            updateMoves(v);
+        }
+        conflictEdges /= 2;
+
+        bestConflictEdges = conflictEdges;
+        bestSaved = false;
+    }
+
+    /**
+     * Find the non tabu move of a conflicted vertex to a new color that
+     * leaves the fewest conflicting edges, ties broken at random. A tabu move
+     * counts too if it leaves fewer than the best coloring seen. If every
+     * move is tabu a random conflicted vertex gets a random new color
+     * @param iteration : the current iteration, compared with tabuUntil
+     * @return the vertex in the high 32 bits and the color in the low 32
+     */
+    private long bestMove(int iteration)
+    {
+        // moves this low reach a new best coloring, tabu or not
+        int aspirationDelta = bestConflictEdges - conflictEdges - 1;
+        for (int b = 0; b < buckets.length; b++)
+        {
+            int size = bucketSize[b];
+            if (size == 0)
+            {
+                continue;
+            }
+            int[] bucket = buckets[b];
+            int move = -1;
+            if (b - maxDegree <= aspirationDelta)
+            {
+                move = bucket[rand.nextInt(size)];
+            }
+            // a few random draws usually find an allowed move, otherwise
+            // count them all to draw one fairly or learn there is none
+            for (int draw = 0; draw < sampleDraws && move == -1; draw++)
+            {
+                int candidate = bucket[rand.nextInt(size)];
+                if (tabuUntil[candidate] <= iteration)
+                {
+                    move = candidate;
+                }
+            }
+            if (move == -1)
+            {
+                int allowed = 0;
+                for (int i = 0; i < size; i++)
+                {
+                    if (tabuUntil[bucket[i]] <= iteration && rand.nextInt(++allowed) == 0)
+                    {
+                        move = bucket[i];
+                    }
+                }
+            }
+            if (move != -1)
+            {
+                return ((long) (move / maxColors) << 32) | (move % maxColors);
+            }
+        }
+        int vertex = conflicted[rand.nextInt(numConflicted)];
+        int color = (colors[vertex] + 1 + rand.nextInt(maxColors - 1)) % maxColors;
+        return ((long) vertex << 32) | color;
+    }
+
+    /**
+     * Keep the best coloring up to date after a move
+     * @param vertex : the vertex just recolored
+     * @param oldColor : its color before the move
+     */
+    private void trackBest(int vertex, int oldColor)
+    {
+        if (conflictEdges < bestConflictEdges)
+        {
+            bestConflictEdges = conflictEdges;
+            bestSaved = false;
+        }
+        else if (conflictEdges > bestConflictEdges && !bestSaved)
+        {
+            // the coloring before this move was a best one, save it
+            System.arraycopy(colors, 0, bestColoring, 0, numPoints);
+            bestColoring[vertex] = oldColor;
+            bestSaved = true;
+        }
+    }
+
+    /**
+     * Give the vertex a new color, updating the gamma rows of its neighbors,
+     * the conflicting edge count and the conflict set
+     * @param vertex
+     * @param color
+     */
+    private void recolor(int vertex, int color)
+    {
+        int oldColor = colors[vertex];
+        int row = vertex * maxColors;
+        conflictEdges += gamma[row + color] - gamma[row + oldColor];
+        colors[vertex] = color;
+        for (int i = offsets[vertex]; i < offsets[vertex + 1]; i++)
+        {
+            int neighbor = neighbors[i];
+            int neighborRow = neighbor * maxColors;
+            gamma[neighborRow + oldColor]--;
+            gamma[neighborRow + color]++;
+            // only neighbors wearing the old or new color can change state
+            int neighborColor = colors[neighbor];
+            if (neighborColor == oldColor || neighborColor == color)
+            {
+                updateConflictSet(neighbor);
+            }
+            updateMoves(neighbor);
+        }
+        updateConflictSet(vertex);
+        updateMoves(vertex);
+    }
+
+    /**
+     * Put each move of the vertex in the bucket of its change in conflicting
+     * edges, or take its moves out of the buckets if it has no conflict
+     * @param vertex
+     */
+    private void updateMoves(int vertex)
+    {
+        int row = vertex * maxColors;
+        boolean inConflict = conflictIndex[vertex] != -1;
+        int current = gamma[row + colors[vertex]];
+        for (int c = 0; c < maxColors; c++)
+        {
+            int move = row + c;
+            if (!inConflict || c == colors[vertex])
+            {
+                if (movePosition[move] != -1)
+                {
+                    removeMove(move);
+                }
+                continue;
+            }
+            int bucket = gamma[move] - current + maxDegree;
+            if (movePosition[move] != -1)
+            {
+                if (moveBucket[move] == bucket)
+                {
+                    continue;
+                }
+                removeMove(move);
+            }
+            if (bucketSize[bucket] == buckets[bucket].length)
+            {
+                buckets[bucket] = Arrays.copyOf(buckets[bucket], bucketSize[bucket] * 2);
+            }
+            movePosition[move] = bucketSize[bucket];
+            moveBucket[move] = bucket;
+            buckets[bucket][bucketSize[bucket]++] = move;
+        }
+    }
+
+    /**
+     * Take the move out of its bucket, swapping the bucket's last move into
+     * its place
+     * @param move
+     */
+    private void removeMove(int move)
+    {
+        int bucket = moveBucket[move];
+        int index = movePosition[move];
+        int last = buckets[bucket][--bucketSize[bucket]];
+        buckets[bucket][index] = last;
+        movePosition[last] = index;
+        movePosition[move] = -1;
+    }
+
+    /**
+     * Add the vertex to or remove it from the conflict set to match the table
+     * @param vertex
+     */
+    private void updateConflictSet(int vertex)
+    {
+        boolean inConflict = gamma[vertex * maxColors + colors[vertex]] > 0;
+        int index = conflictIndex[vertex];
+        if (inConflict && index == -1)
+        {
+            conflictIndex[vertex] = numConflicted;
+            conflicted[numConflicted++] = vertex;
+        }
+        else if (!inConflict && index != -1)
+        {
+            // swap the last member into the freed slot
+            int last = conflicted[--numConflicted];
+            conflicted[index] = last;
+            conflictIndex[last] = index;
+            conflictIndex[vertex] = -1;
+        }
+    }
+}
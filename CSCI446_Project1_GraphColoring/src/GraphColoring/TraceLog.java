@@ -0,0 +1,264 @@
+package GraphColoring;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Leveled event log for the solver hot paths. Events are a type and two
+ * ints, so logging one never formats a string or allocates. While a level is
+ * disabled an event call is a single compare and return.
+ *
+ * Enabled events go into a ring buffer owned by the logging thread. One
+ * daemon writer thread drains every ring into a CSV file with the columns
+ * nanos, thread, event, a, b. When a ring is full the event is dropped and
+ * counted rather than making the solver wait, the count is written as a
+ * DROPPED row. The ring of a thread that has ended is removed once it has
+ * been drained, so pool threads that come and go do not pile up rings.
+ *
+ * @version 10/18/26
+ */
+public final class TraceLog
+{
+    public enum Level
+    {
+        OFF,
+        // once per run or per progress report
+        INFO,
+        // once per generation, search restart or graph dump
+        DEBUG,
+        // once per decision
+        TRACE
+    }
+
+    /**
+     * What a row of the trace means, and what its a and b columns hold
+     */
+    public enum Event
+    {
+        // a: vertex, b: color
+        ASSIGN,
+        // a: vertex, b: color it is unassigned from
+        BACKTRACK,
+        // a: vertex, b: new color
+        RECOLOR,
+        // a: step, b: vertices in conflict
+        STEP,
+        // a: generation, b: best fitness
+        GENERATION,
+        // a: vertex count, b: edge count
+        SOLVE_START,
+        // a: decisions made, b: 1 if the coloring is valid
+        SOLVE_END,
+        // a: events lost because the ring was full
+        DROPPED
+    }
+
+    // slots per thread, must be a power of two
+    private static final int ringSize = 1 << 16;
+    // how long the writer sleeps when every ring is empty
+    private static final long idleNanos = 1000000;
+
+    // the most detailed level written. Read on every event call
+    private static volatile int threshold = Level.OFF.ordinal();
+    private static final List<Ring> rings = new CopyOnWriteArrayList<>();
+    private static final ThreadLocal<Ring> threadRing = ThreadLocal.withInitial(() ->
+    {
+        Ring ring = new Ring(Thread.currentThread());
+        rings.add(ring);
+        return ring;
+    });
+    private static Thread writerThread;
+    private static volatile boolean closing;
+
+    private TraceLog()
+    {
+
+    }
+
+    /**
+     * Start writing events at level and below to file
+     * @param file : the CSV file to create
+     * @param level : the most detailed level to keep
+     */
+    public static synchronized void open(File file, Level level) throws IOException
+    {
+        close();
+        BufferedWriter out = new BufferedWriter(new FileWriter(file));
+        out.write("nanos,thread,event,a,b");
+        out.newLine();
+        closing = false;
+        writerThread = new Thread(() -> drainUntilClosed(out), "trace-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        threshold = level.ordinal();
+    }
+
+    /**
+     * Stop logging, write out every buffered event and close the file
+     */
+    public static synchronized void close()
+    {
+        threshold = Level.OFF.ordinal();
+        if (writerThread == null)
+        {
+            return;
+        }
+        closing = true;
+        try
+        {
+            writerThread.join();
+        } catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        writerThread = null;
+    }
+
+    /**
+     * For output that is more than one event, such as a graph dump
+     * @param level : the level the output belongs to
+     * @return true if output at level is being kept
+     */
+    public static boolean isEnabled(Level level)
+    {
+        return level.ordinal() <= threshold;
+    }
+
+    /**
+     * Record one event if its level is enabled
+     * @param level : the level of the event
+     * @param event : what happened
+     * @param a : first value, see Event
+     * @param b : second value, see Event
+     */
+    public static void event(Level level, Event event, int a, int b)
+    {
+        if (level.ordinal() > threshold)
+        {
+            return;
+        }
+        threadRing.get().put(System.nanoTime(), event, a, b);
+    }
+
+    // <editor-fold defaultstate="collapsed" desc="Writer thread">
+    private static void drainUntilClosed(BufferedWriter out)
+    {
+        try
+        {
+            while (true)
+            {
+                // read closing first so events put before close() are drained
+                boolean last = closing;
+                int written = 0;
+                for (Ring ring : rings)
+                {
+                    // checked before draining so the thread's last events are kept
+                    boolean ended = !ring.owner.isAlive();
+                    written += ring.drainTo(out);
+                    if (ended)
+                    {
+                        rings.remove(ring);
+                    }
+                }
+                if (last)
+                {
+                    break;
+                }
+                if (written == 0)
+                {
+                    out.flush();
+                    LockSupport.parkNanos(idleNanos);
+                }
+            }
+            out.close();
+        } catch (IOException e)
+        {
+            System.err.println("Trace log stopped: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Single producer, single consumer ring. Only the owning thread puts and
+     * only the writer thread drains
+     */
+    private static class Ring
+    {
+        private final Thread owner;
+        private final String threadName;
+        private final long[] nanos = new long[ringSize];
+        private final Event[] events = new Event[ringSize];
+        private final int[] as = new int[ringSize];
+        private final int[] bs = new int[ringSize];
+        // next slot to write, published after the slot is filled
+        private final AtomicLong tail = new AtomicLong();
+        // next slot to read, published after the slot is written out
+        private final AtomicLong head = new AtomicLong();
+        // only touched by the producer, handed over through DROPPED rows
+        private int dropped = 0;
+
+        Ring(Thread owner)
+        {
+            this.owner = owner;
+            this.threadName = owner.getName();
+        }
+
+        void put(long time, Event event, int a, int b)
+        {
+            long slot = tail.get();
+            if (slot - head.get() >= ringSize - 1)
+            {
+                dropped++;
+                return;
+            }
+            if (dropped > 0)
+            {
+                // the ring has room again, report what was lost first
+                write(slot++, time, Event.DROPPED, dropped, 0);
+                dropped = 0;
+            }
+            write(slot++, time, event, a, b);
+            tail.lazySet(slot);
+        }
+
+        private void write(long slot, long time, Event event, int a, int b)
+        {
+            int i = (int) slot & (ringSize - 1);
+            nanos[i] = time;
+            events[i] = event;
+            as[i] = a;
+            bs[i] = b;
+        }
+
+        /**
+         * @return the number of rows written
+         */
+        int drainTo(BufferedWriter out) throws IOException
+        {
+            long start = head.get();
+            long end = tail.get();
+            for (long slot = start; slot < end; slot++)
+            {
+                int i = (int) slot & (ringSize - 1);
+                out.write(Long.toString(nanos[i]));
+                out.write(',');
+                out.write(threadName);
+                out.write(',');
+                out.write(events[i].name());
+                out.write(',');
+                out.write(Integer.toString(as[i]));
+                out.write(',');
+                out.write(Integer.toString(bs[i]));
+                out.newLine();
+            }
+            head.lazySet(end);
+            return (int) (end - start);
+        }
+    }
+    // </editor-fold>
+}
@@ -98,13 +98,10 @@ public class Vertex
     
     public boolean calculateFitness()
 {
+	// a vertex with no edges, common in DIMACS instances and large generated
+	// graphs, can not be in conflict and is always fit
 	fitness = true;
 	
-	if (edges.isEmpty())
-	{
-		throw new RuntimeException("Vertex " + vertexNum + " has no edges connected to it.");
-	}
-	
 	for (Vertex vertex : edges.values())
 	{
 		if (color == vertex.color)
@@ -0,0 +1,138 @@
+package GraphColoring;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the run control and incremental recoloring ConstraintSolver
+ * gives every solver
+ *
+ * @version 10/18/26
+ */
+public class ConstraintSolverTest
+{
+    private final PrintWriter discard = new PrintWriter(new StringWriter());
+
+    private ConstraintSolver solverFor(Graph graph)
+    {
+        ConstraintSolver solver = new ConflictDirectedBackjumpingSolver();
+        solver.updateGraph(graph);
+        solver.setMaxColors(4);
+        solver.assignPrintWriter(discard);
+        return solver;
+    }
+
+    /**
+     * A cancel() made before solve() starts stops that run, and only that run
+     */
+    @Test
+    public void cancelBeforeSolveStopsTheNextRunOnly()
+    {
+        ConstraintSolver solver = solverFor(new Graph_Generator(1000, discard, 446).generateGraph());
+        solver.cancel();
+        SolveResult cancelled = solver.solve(0, Long.MAX_VALUE);
+        assertEquals(SolveStatus.TIMED_OUT, cancelled.getStatus());
+        assertEquals(0, cancelled.getDecisionsMade());
+
+        assertEquals(SolveStatus.SOLVED, solver.solve(0, Long.MAX_VALUE).getStatus());
+    }
+
+    /**
+     * The local search solvers stop at the budget however large the graph,
+     * including while building their starting colorings
+     */
+    @Test
+    public void localSearchSolversStopAtTheDecisionBudget()
+    {
+        Graph graph = new Graph_Generator(5000, discard, 446).generateGraph();
+        ConstraintSolver[] solvers = {new MinConflictsSolver(), new TabucolSolver(), new MemeticSolver()};
+        for (ConstraintSolver solver : solvers)
+        {
+            solver.updateGraph(graph);
+            solver.setMaxColors(4);
+            solver.assignPrintWriter(discard);
+            SolveResult result = solver.solve(0, 100);
+            assertEquals(solver.getClass().getSimpleName(), SolveStatus.TIMED_OUT, result.getStatus());
+            assertEquals(solver.getClass().getSimpleName(), 100, result.getDecisionsMade());
+        }
+    }
+
+    /**
+     * New vertices and edges are repaired by recolor(), and a later solve()
+     * searches the graph as it is now rather than the one first solved
+     */
+    @Test
+    public void recolorAfterAddingVerticesAndEdges()
+    {
+        Graph graph = new Graph_Generator(500, discard, 446).generateGraph();
+        ConstraintSolver solver = solverFor(graph);
+        assertEquals(SolveStatus.SOLVED, solver.solve(0, Long.MAX_VALUE).getStatus());
+
+        for (int i = 0; i < 10; i++)
+        {
+            int added = graph.addVertex(i / 10.0, 0.5);
+            graph.addEdge(added, i);
+            graph.addEdge(added, 2 * i + 1);
+        }
+        graph.addEdge(3, 250);
+        assertEquals(SolveStatus.SOLVED, solver.recolor(0, Long.MAX_VALUE));
+        assertTrue(solver.isSatisfiesConstraint());
+        assertColored(graph);
+
+        SolveResult result = solver.solve(0, Long.MAX_VALUE);
+        assertEquals(SolveStatus.SOLVED, result.getStatus());
+        assertEquals(510, result.getColors().length);
+    }
+
+    /**
+     * Removing vertices renumbers the last vertex into each gap, the
+     * numbering and edges stay consistent and the coloring stays valid
+     */
+    @Test
+    public void recolorAfterRemovingVertices()
+    {
+        Graph graph = new Graph_Generator(500, discard, 446).generateGraph();
+        ConstraintSolver solver = solverFor(graph);
+        assertEquals(SolveStatus.SOLVED, solver.solve(0, Long.MAX_VALUE).getStatus());
+
+        assertEquals(499, graph.removeVertex(0));
+        assertEquals(-1, graph.removeVertex(498));
+        assertEquals(497, graph.removeVertex(100));
+        graph.removeEdge(1, graph.theGraph.get(1).edges.keySet().iterator().next());
+        assertEquals(497, graph.getGraphSize());
+        for (int v = 0; v < graph.getGraphSize(); v++)
+        {
+            Vertex vertex = graph.theGraph.get(v);
+            assertEquals(v, vertex.getVertexNum());
+            for (Vertex neighbor : vertex.edges.values())
+            {
+                assertTrue(neighbor.getVertexNum() < graph.getGraphSize());
+                assertTrue(neighbor.edges.get(v) == vertex);
+            }
+        }
+
+        assertEquals(SolveStatus.SOLVED, solver.recolor(0, Long.MAX_VALUE));
+        assertColored(graph);
+        SolveResult result = solver.solve(0, Long.MAX_VALUE);
+        assertEquals(SolveStatus.SOLVED, result.getStatus());
+        assertEquals(497, result.getColors().length);
+    }
+
+    /**
+     * Every vertex has a color in range and no edge joins two of the same
+     */
+    private static void assertColored(Graph graph)
+    {
+        for (Vertex vertex : graph.theGraph.values())
+        {
+            assertTrue(vertex.color >= 0 && vertex.color < 4);
+            for (Vertex neighbor : vertex.edges.values())
+            {
+                assertTrue(neighbor.color != vertex.color);
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package GraphColoring;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.Arrays;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for DecomposingSolver
+ *
+ * @version 10/18/26
+ */
+public class DecomposingSolverTest
+{
+    private final PrintWriter discard = new PrintWriter(new StringWriter());
+
+    /**
+     * Cycles of five vertices chained through shared vertices, with a triangle hanging
+     * off every cycle vertex. Every shared vertex is an articulation point,
+     * the cycles go to the block solver and the triangles are colored
+     * directly, so joining the blocks has to swap colors to make them agree
+     */
+    @Test
+    public void joinedBlocksColorTheWholeGraph()
+    {
+        int numCycles = 20;
+        int[] sources = new int[numCycles * 20];
+        int[] targets = new int[sources.length];
+        int numEdges = 0;
+        int n = 1;
+        int shared = 0;
+        for (int cycle = 0; cycle < numCycles; cycle++)
+        {
+            int[] ring = {shared, n, n + 1, n + 2, n + 3};
+            n += 4;
+            for (int i = 0; i < ring.length; i++)
+            {
+                sources[numEdges] = ring[i];
+                targets[numEdges++] = ring[(i + 1) % ring.length];
+                // triangle through ring[i] and two new vertices
+                sources[numEdges] = ring[i];
+                targets[numEdges++] = n;
+                sources[numEdges] = ring[i];
+                targets[numEdges++] = n + 1;
+                sources[numEdges] = n;
+                targets[numEdges++] = n + 1;
+                n += 2;
+            }
+            // the next cycle hangs off the middle of this one
+            shared = ring[2];
+        }
+        CompactGraph compact = CompactGraph.fromEdgeList(n, sources, targets, numEdges, new double[n], new double[n]);
+        assertEquals(numCycles + numCycles * 5, new GraphDecomposition(compact).getNumBlocks());
+
+        Graph graph = compact.toGraph(discard);
+        DecomposingSolver solver = new DecomposingSolver();
+        solver.updateGraph(graph);
+        solver.setMaxColors(3);
+        solver.assignPrintWriter(discard);
+        SolveResult result = solver.solve(0, Long.MAX_VALUE);
+
+        assertEquals(SolveStatus.SOLVED, result.getStatus());
+        assertTrue(solver.isSatisfiesConstraint());
+        for (int color : result.getColors())
+        {
+            assertTrue("color " + color, color >= 0 && color < 3);
+        }
+    }
+
+    /**
+     * A graph that is one large block still stops at the caller's budget
+     */
+    @Test
+    public void singleBlockStopsAtTheDecisionBudget()
+    {
+        SolveResult result = solveWheels(1, 999, 50);
+        assertTrue("decisions " + result.getDecisionsMade(), result.getDecisionsMade() <= 50);
+        assertTrue(Arrays.stream(result.getColors()).anyMatch(color -> color == -1));
+    }
+
+    /**
+     * Blocks colored at the same time share one budget rather than each
+     * getting all of it. Each running block solver may hold back a few
+     * decisions it has not reported yet, so the total can pass the budget
+     * by a little
+     */
+    @Test
+    public void blockSolversShareTheDecisionBudget()
+    {
+        long budget = 200;
+        SolveResult result = solveWheels(64, 99, budget);
+        long slack = 4 * Runtime.getRuntime().availableProcessors();
+        assertTrue("decisions " + result.getDecisionsMade(), result.getDecisionsMade() <= budget + slack);
+        assertTrue(Arrays.stream(result.getColors()).anyMatch(color -> color == -1));
+    }
+
+    /**
+     * Solve disjoint wheels, each one block. An odd rim needs all 4 colors
+     * @param numWheels : how many wheels
+     * @param rim : vertices on each rim, the hub is one more
+     * @param budget : the decision budget for solve()
+     * @return the result of the solve
+     */
+    private SolveResult solveWheels(int numWheels, int rim, long budget)
+    {
+        int[] sources = new int[numWheels * 2 * rim];
+        int[] targets = new int[sources.length];
+        int numEdges = 0;
+        for (int wheel = 0; wheel < numWheels; wheel++)
+        {
+            int first = wheel * (rim + 1);
+            int hub = first + rim;
+            for (int i = 0; i < rim; i++)
+            {
+                sources[numEdges] = hub;
+                targets[numEdges++] = first + i;
+                sources[numEdges] = first + i;
+                targets[numEdges++] = first + (i + 1) % rim;
+            }
+        }
+        int n = numWheels * (rim + 1);
+        CompactGraph compact = CompactGraph.fromEdgeList(n, sources, targets, numEdges, new double[n], new double[n]);
+        assertEquals(numWheels, new GraphDecomposition(compact).getNumBlocks());
+
+        DecomposingSolver solver = new DecomposingSolver();
+        solver.updateGraph(compact.toGraph(discard));
+        solver.setMaxColors(4);
+        solver.assignPrintWriter(discard);
+        return solver.solve(0, budget);
+    }
+}
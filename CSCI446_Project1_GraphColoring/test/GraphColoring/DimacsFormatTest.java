@@ -0,0 +1,70 @@
+package GraphColoring;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for DimacsFormat
+ *
+ * @version 10/18/26
+ */
+public class DimacsFormatTest
+{
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * A generated graph comes back with the same neighbors for every vertex.
+     * The neighbor order within a vertex may change, so each list is sorted
+     * before comparing
+     */
+    @Test
+    public void writeThenReadKeepsTheEdges() throws IOException
+    {
+        CompactGraph graph = new Graph_Generator(200, new PrintWriter(new StringWriter()), 446).generateCompactGraph();
+        File file = folder.newFile("graph.col");
+        DimacsFormat.write(graph, file, "round trip");
+        CompactGraph read = DimacsFormat.readCompact(file);
+
+        assertEquals(graph.getNumVertices(), read.getNumVertices());
+        assertEquals(graph.getNumEdges(), read.getNumEdges());
+        for (int v = 0; v < graph.getNumVertices(); v++)
+        {
+            assertArrayEquals("neighbors of " + v, sortedNeighbors(graph, v), sortedNeighbors(read, v));
+        }
+    }
+
+    /**
+     * A 0xFF byte is an ordinary character, not the end of the file
+     */
+    @Test
+    public void highByteDoesNotEndTheFile() throws IOException
+    {
+        File file = folder.newFile("high.col");
+        try (OutputStream out = new FileOutputStream(file))
+        {
+            out.write("p edge 4 3\ne 1 2\n".getBytes(StandardCharsets.US_ASCII));
+            out.write(new byte[] {(byte) 0xFF, '\n'});
+            out.write("e 2 3\ne 3 4\n".getBytes(StandardCharsets.US_ASCII));
+        }
+        assertEquals(3, DimacsFormat.readCompact(file).getNumEdges());
+    }
+
+    private static int[] sortedNeighbors(CompactGraph graph, int v)
+    {
+        int[] neighbors = Arrays.copyOfRange(graph.neighbors, graph.offsets[v], graph.offsets[v + 1]);
+        Arrays.sort(neighbors);
+        return neighbors;
+    }
+}
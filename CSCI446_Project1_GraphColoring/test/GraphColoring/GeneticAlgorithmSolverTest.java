@@ -0,0 +1,41 @@
+package GraphColoring;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for GeneticAlgorithmSolver
+ *
+ * @version 10/18/26
+ */
+public class GeneticAlgorithmSolverTest
+{
+    private final PrintWriter discard = new PrintWriter(new StringWriter());
+
+    /**
+     * Four islands evolving on their own threads, migrating between them,
+     * color a graph too big to be solved by the first generation
+     */
+    @Test
+    public void islandModeColorsTheGraph()
+    {
+        Graph graph = new Graph_Generator(100, discard, 446).generateGraph();
+        GeneticAlgorithmSolver solver = new GeneticAlgorithmSolver(4);
+        solver.updateGraph(graph);
+        solver.setMaxColors(4);
+        solver.assignPrintWriter(discard);
+        SolveResult result = solver.solve(60000, Long.MAX_VALUE);
+
+        assertEquals(SolveStatus.SOLVED, result.getStatus());
+        assertTrue(solver.isSatisfiesConstraint());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void noIslandsIsRejected()
+    {
+        new GeneticAlgorithmSolver(0);
+    }
+}
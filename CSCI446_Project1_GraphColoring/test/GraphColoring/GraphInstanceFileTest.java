@@ -0,0 +1,95 @@
+package GraphColoring;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.RandomAccessFile;
+import java.io.StringWriter;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for GraphInstanceFile
+ *
+ * @version 10/18/26
+ */
+public class GraphInstanceFileTest
+{
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * A generated graph comes back with the same coordinates and edges and
+     * every vertex uncolored
+     */
+    @Test
+    public void writeThenReadKeepsTheGraph() throws IOException
+    {
+        CompactGraph graph = new Graph_Generator(200, new PrintWriter(new StringWriter()), 446).generateCompactGraph();
+        File file = folder.newFile("graph.gcol");
+        GraphInstanceFile.write(graph, file);
+        CompactGraph read = GraphInstanceFile.read(file);
+
+        assertEquals(graph.getNumVertices(), read.getNumVertices());
+        assertArrayEquals(graph.xValues, read.xValues, 0);
+        assertArrayEquals(graph.yValues, read.yValues, 0);
+        assertArrayEquals(graph.offsets, read.offsets);
+        assertArrayEquals(graph.neighbors, read.neighbors);
+        for (int v = 0; v < read.getNumVertices(); v++)
+        {
+            assertEquals(-1, read.colors[v]);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void neighborOutsideTheGraphIsRejected() throws IOException
+    {
+        File file = writeTriangle();
+        // the last neighbor id, little endian, becomes vertex 3 of 3
+        overwriteInt(file, file.length() - 4, 3);
+        GraphInstanceFile.read(file);
+    }
+
+    @Test(expected = IOException.class)
+    public void decreasingOffsetsAreRejected() throws IOException
+    {
+        File file = writeTriangle();
+        // offsets start after the 16 byte header and 3 x and 3 y values
+        overwriteInt(file, 16 + 48 + 4, 5);
+        GraphInstanceFile.read(file);
+    }
+
+    @Test(expected = IOException.class)
+    public void truncatedFileIsRejected() throws IOException
+    {
+        File file = writeTriangle();
+        try (RandomAccessFile out = new RandomAccessFile(file, "rw"))
+        {
+            out.setLength(file.length() - 4);
+        }
+        GraphInstanceFile.read(file);
+    }
+
+    private File writeTriangle() throws IOException
+    {
+        int[] offsets = {0, 2, 4, 6};
+        int[] neighbors = {1, 2, 0, 2, 0, 1};
+        double[] coordinates = {0, 0.5, 1};
+        File file = folder.newFile("triangle.gcol");
+        GraphInstanceFile.write(new CompactGraph(offsets, neighbors, coordinates, coordinates), file);
+        return file;
+    }
+
+    private static void overwriteInt(File file, long position, int value) throws IOException
+    {
+        try (RandomAccessFile out = new RandomAccessFile(file, "rw"))
+        {
+            out.seek(position);
+            // RandomAccessFile writes big endian, the format is little endian
+            out.writeInt(Integer.reverseBytes(value));
+        }
+    }
+}